@@ -1,6 +1,7 @@
 package cl.casero.migration.domain;
 
 import cl.casero.migration.domain.enums.UserRole;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -14,10 +15,17 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.time.Instant;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "app_user")
+@NaturalIdCache(region = "app_user_pin")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,6 +48,7 @@ public class AppUser {
     @Column(name = "pin_salt", nullable = false, length = 16)
     private String pinSalt;
 
+    @NaturalId(mutable = true)
     @Column(name = "pin_fingerprint", nullable = false, length = 64, unique = true)
     private String pinFingerprint;
 
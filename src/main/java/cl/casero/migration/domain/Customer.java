@@ -12,6 +12,7 @@ import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,6 +41,9 @@ public class Customer {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    @Column(name = "last_payment_date")
+    private LocalDate lastPaymentDate;
+
     @OneToMany(mappedBy = "customer")
     private List<Transaction> transactions = new ArrayList<>();
 }
@@ -0,0 +1,29 @@
+package cl.casero.migration.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "customer_score")
+public class CustomerScore {
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(nullable = false)
+    private Double score;
+
+    @Column(name = "cycle_count", nullable = false)
+    private Integer cycleCount = 0;
+
+    @Column(name = "calculated_at", nullable = false)
+    private OffsetDateTime calculatedAt;
+}
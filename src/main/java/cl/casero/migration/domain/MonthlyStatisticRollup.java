@@ -0,0 +1,59 @@
+package cl.casero.migration.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+@Entity
+@Getter
+@Setter
+@Table(name = "monthly_statistic_rollup")
+@IdClass(MonthlyStatisticRollup.Key.class)
+public class MonthlyStatisticRollup {
+    @Id
+    private Integer year;
+
+    @Id
+    private Integer month;
+
+    @Column(name = "finished_cards_count", nullable = false)
+    private Integer finishedCardsCount = 0;
+
+    @Column(name = "new_cards_count", nullable = false)
+    private Integer newCardsCount = 0;
+
+    @Column(name = "maintenance_count", nullable = false)
+    private Integer maintenanceCount = 0;
+
+    @Column(name = "total_items_count", nullable = false)
+    private Integer totalItemsCount = 0;
+
+    @Column(name = "payments_amount", nullable = false)
+    private Integer paymentsAmount = 0;
+
+    @Column(name = "sales_amount", nullable = false)
+    private Integer salesAmount = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer year;
+        private Integer month;
+    }
+}
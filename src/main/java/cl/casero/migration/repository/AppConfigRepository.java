@@ -3,7 +3,15 @@ package cl.casero.migration.repository;
 import cl.casero.migration.domain.AppConfig;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface AppConfigRepository extends JpaRepository<AppConfig, Long> {
     Optional<AppConfig> findByConfigKey(String configKey);
+
+    @Query("SELECT c.value FROM AppConfig c WHERE c.configKey = :configKey")
+    Optional<String> findValueByConfigKey(@Param("configKey") String configKey);
+
+    @Query(value = "SELECT version FROM app_config_version WHERE id = 1", nativeQuery = true)
+    Long findVersion();
 }
@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface AppUserRepository extends JpaRepository<AppUser, Long> {
+public interface AppUserRepository extends JpaRepository<AppUser, Long>, AppUserRepositoryCustom {
     Optional<AppUser> findByPinFingerprint(String pinFingerprint);
 
     List<AppUser> findAllByOrderByNameAsc();
@@ -0,0 +1,14 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.AppUser;
+import java.util.Optional;
+
+public interface AppUserRepositoryCustom {
+
+    /**
+     * Login lookup by PIN fingerprint. Resolves through the natural-id and entity caches, so
+     * repeated logins skip the database; a PIN change made through Hibernate replaces the
+     * cached mapping when its transaction commits.
+     */
+    Optional<AppUser> findCachedByPinFingerprint(String pinFingerprint);
+}
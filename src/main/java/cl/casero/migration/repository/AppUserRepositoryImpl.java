@@ -0,0 +1,20 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.AppUser;
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+
+@RequiredArgsConstructor
+class AppUserRepositoryImpl implements AppUserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<AppUser> findCachedByPinFingerprint(String pinFingerprint) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(AppUser.class)
+                .loadOptional(pinFingerprint);
+    }
+}
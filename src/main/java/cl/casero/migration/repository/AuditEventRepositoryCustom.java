@@ -0,0 +1,59 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.enums.AuditEventType;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public interface AuditEventRepositoryCustom {
+
+    /**
+     * Returns up to {@code limit} events matching {@code filter}, newest first, strictly
+     * after the {@code (createdAt, id)} position when one is given.
+     */
+    List<AuditEventRow> findPage(AuditEventFilter filter, Instant afterCreatedAt, Long afterId, int limit);
+
+    /**
+     * Planner estimate of the rows matching {@code filter}; cheap regardless of table size.
+     */
+    long estimateCount(AuditEventFilter filter);
+
+    /**
+     * Returns up to {@code limit} hourly page view counters, newest hour first, strictly
+     * after the {@code (hour, id)} position when one is given.
+     */
+    List<PageViewRollupRow> findPageViewRollups(Instant from, Instant to, Instant afterHour, Long afterId, int limit);
+
+    record AuditEventFilter(
+        AuditEventType eventType,
+        String payloadType,
+        Instant from,
+        Instant to
+    ) {
+        public boolean isEmpty() {
+            return eventType == null && payloadType == null && from == null && to == null;
+        }
+    }
+
+    record AuditEventRow(
+        Long id,
+        Instant createdAt,
+        AuditEventType eventType,
+        Map<String, Object> payload,
+        String ip,
+        String userName
+    ) {
+        public Object payloadType() {
+            return payload != null ? payload.get("type") : null;
+        }
+    }
+
+    record PageViewRollupRow(
+        Long id,
+        Instant hour,
+        String userName,
+        String path,
+        int viewCount
+    ) {
+    }
+}
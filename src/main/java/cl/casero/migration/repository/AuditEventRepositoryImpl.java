@@ -0,0 +1,157 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.enums.AuditEventType;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+@RequiredArgsConstructor
+class AuditEventRepositoryImpl implements AuditEventRepositoryCustom {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<AuditEventRow> findPage(AuditEventFilter filter, Instant afterCreatedAt, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT ae.id, ae.created_at, ae.event_type, ae.payload::text AS payload, host(ae.ip) AS ip, u.name AS user_name
+                FROM audit_event ae
+                LEFT JOIN app_user u ON u.id = ae.user_id
+                WHERE TRUE
+                """);
+
+        appendFilter(sql, params, filter);
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append(" AND (ae.created_at, ae.id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", afterCreatedAt.atOffset(ZoneOffset.UTC));
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY ae.created_at DESC, ae.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, this::mapRow);
+    }
+
+    @Override
+    public long estimateCount(AuditEventFilter filter) {
+        if (filter.isEmpty()) {
+            Long total = jdbcTemplate.getJdbcTemplate().queryForObject("""
+                    SELECT COALESCE(SUM(GREATEST(c.reltuples, 0)), 0)::bigint
+                    FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE i.inhparent = 'audit_event'::regclass
+                    """, Long.class);
+            return total != null ? total : 0L;
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT 1 FROM audit_event ae WHERE TRUE");
+        appendFilter(sql, params, filter);
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), params, String.class);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong(0L);
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    @Override
+    public List<PageViewRollupRow> findPageViewRollups(Instant from, Instant to, Instant afterHour, Long afterId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("""
+                SELECT r.id, r.hour, u.name AS user_name, r.path, r.view_count
+                FROM audit_page_view_hourly r
+                LEFT JOIN app_user u ON u.id = r.user_id
+                WHERE TRUE
+                """);
+
+        if (from != null) {
+            sql.append(" AND r.hour >= :from");
+            params.addValue("from", from.atOffset(ZoneOffset.UTC));
+        }
+        if (to != null) {
+            sql.append(" AND r.hour < :to");
+            params.addValue("to", to.atOffset(ZoneOffset.UTC));
+        }
+        if (afterHour != null && afterId != null) {
+            sql.append(" AND (r.hour, r.id) < (:afterHour, :afterId)");
+            params.addValue("afterHour", afterHour.atOffset(ZoneOffset.UTC));
+            params.addValue("afterId", afterId);
+        }
+        sql.append(" ORDER BY r.hour DESC, r.id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+
+        return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> new PageViewRollupRow(
+            rs.getLong("id"),
+            rs.getTimestamp("hour").toInstant(),
+            rs.getString("user_name"),
+            rs.getString("path"),
+            rs.getInt("view_count")));
+    }
+
+    private static void appendFilter(StringBuilder sql, MapSqlParameterSource params, AuditEventFilter filter) {
+        if (filter.eventType() != null) {
+            sql.append(" AND ae.event_type = :eventType");
+            params.addValue("eventType", filter.eventType().name());
+        }
+        if (filter.payloadType() != null) {
+            sql.append(" AND ae.payload ->> 'type' = :payloadType");
+            params.addValue("payloadType", filter.payloadType());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND ae.created_at >= :from");
+            params.addValue("from", filter.from().atOffset(ZoneOffset.UTC));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND ae.created_at < :to");
+            params.addValue("to", filter.to().atOffset(ZoneOffset.UTC));
+        }
+    }
+
+    private AuditEventRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new AuditEventRow(
+            rs.getLong("id"),
+            createdAt != null ? createdAt.toInstant() : null,
+            parseEventType(rs.getString("event_type")),
+            parsePayload(rs.getString("payload")),
+            rs.getString("ip"),
+            rs.getString("user_name"));
+    }
+
+    private Map<String, Object> parsePayload(String json) {
+        if (json == null || json.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (IOException ex) {
+            return Map.of();
+        }
+    }
+
+    private static AuditEventType parseEventType(String value) {
+        try {
+            return value != null ? AuditEventType.valueOf(value) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -3,10 +3,14 @@ package cl.casero.migration.repository;
 import cl.casero.migration.domain.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,33 +18,49 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer> findByIdAndEnabledTrue(Long id);
 
+    @EntityGraph(attributePaths = "sector")
     List<Customer> findAllByEnabledTrue();
 
+    @EntityGraph(attributePaths = "sector")
+    List<Customer> findAllByEnabledTrueAndSectorIdOrderByNameAsc(Long sectorId);
+
+    @EntityGraph(attributePaths = "sector")
+    List<Customer> findAllByEnabledTrueAndIdIn(Collection<Long> ids);
+
     @Query(value = """
-            SELECT c FROM Customer c
-            JOIN c.sector s
+            SELECT c.*
+            FROM customer c
             WHERE c.enabled = true
               AND (
-                   translate(lower(c.name), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
-                OR translate(lower(c.address), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
-                OR translate(lower(s.name), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
+                   c.search_text LIKE '%' || casero_normalize(:filter) || '%'
+                OR c.sector_id IN (
+                       SELECT s.id
+                       FROM sector s
+                       WHERE casero_normalize(s.name) LIKE '%' || casero_normalize(:filter) || '%'
+                   )
               )
-            ORDER BY c.name ASC
+            ORDER BY similarity(c.search_text, casero_normalize(:filter)) DESC, c.name ASC
             """,
             countQuery = """
-            SELECT COUNT(c) FROM Customer c
-            JOIN c.sector s
+            SELECT COUNT(*)
+            FROM customer c
             WHERE c.enabled = true
               AND (
-                   translate(lower(c.name), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
-                OR translate(lower(c.address), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
-                OR translate(lower(s.name), 'áéíóúñ', 'aeioun') LIKE translate(lower(concat('%', :filter, '%')), 'áéíóúñ', 'aeioun')
+                   c.search_text LIKE '%' || casero_normalize(:filter) || '%'
+                OR c.sector_id IN (
+                       SELECT s.id
+                       FROM sector s
+                       WHERE casero_normalize(s.name) LIKE '%' || casero_normalize(:filter) || '%'
+                   )
               )
-            """)
+            """,
+            nativeQuery = true)
     Page<Customer> search(@Param("filter") String filter, Pageable pageable);
 
+    @EntityGraph(attributePaths = "sector")
     Page<Customer> findAllByEnabledTrueOrderByDebtDesc(Pageable pageable);
 
+    @EntityGraph(attributePaths = "sector")
     Page<Customer> findAllByEnabledTrueOrderByDebtAsc(Pageable pageable);
 
     long countByEnabledTrue();
@@ -71,69 +91,52 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     }
 
     @Query(value = """
-            WITH last_payments AS (
-                SELECT
-                    c.id,
-                    c.name,
-                    s.name AS sector,
-                    c.debt,
-                    MAX(t.date) AS last_payment_date
-                FROM customer c
-                JOIN sector s ON s.id = c.sector_id
-                LEFT JOIN transaction t
-                    ON t.customer_id = c.id
-                   AND t.type = 'PAYMENT'
-                WHERE c.enabled = true
-                  AND c.debt > 0
-                GROUP BY c.id, c.name, s.name, c.debt
-            )
             SELECT
-                lp.id,
-                lp.name,
-                lp.sector,
-                lp.debt,
+                c.id,
+                c.name,
+                s.name AS sector,
+                c.debt,
                 CASE
-                    WHEN lp.last_payment_date IS NULL THEN 'Nunca ha abonado'
-                    ELSE TO_CHAR(lp.last_payment_date, 'YYYY-MM-DD')
+                    WHEN c.last_payment_date IS NULL THEN 'Nunca ha abonado'
+                    ELSE TO_CHAR(c.last_payment_date, 'YYYY-MM-DD')
                 END AS last_payment,
                 CASE
-                    WHEN lp.last_payment_date IS NULL THEN NULL
+                    WHEN c.last_payment_date IS NULL THEN NULL
                     ELSE CAST(
-                        DATE_PART('year', age(CURRENT_DATE, lp.last_payment_date)) * 12
-                        + DATE_PART('month', age(CURRENT_DATE, lp.last_payment_date))
+                        DATE_PART('year', age(CURRENT_DATE, c.last_payment_date)) * 12
+                        + DATE_PART('month', age(CURRENT_DATE, c.last_payment_date))
                     AS INTEGER)
                 END AS months_overdue
-            FROM last_payments lp
-            WHERE lp.last_payment_date IS NULL
-               OR lp.last_payment_date < CURRENT_DATE - (:months * INTERVAL '1 month')
-            ORDER BY
-                (lp.last_payment_date IS NULL),
-                lp.last_payment_date DESC
+            FROM customer c
+            JOIN sector s ON s.id = c.sector_id
+            WHERE c.enabled = true
+              AND c.debt > 0
+              AND COALESCE(c.last_payment_date, CAST('-infinity' AS date))
+                  < CAST(CURRENT_DATE - (:months * INTERVAL '1 month') AS date)
+            ORDER BY COALESCE(c.last_payment_date, CAST('-infinity' AS date)) DESC, c.id
             """,
             countQuery = """
-            WITH last_payments AS (
-                SELECT
-                    c.id,
-                    c.name,
-                    s.name AS sector,
-                    c.debt,
-                    MAX(t.date) AS last_payment_date
-                FROM customer c
-                JOIN sector s ON s.id = c.sector_id
-                LEFT JOIN transaction t
-                    ON t.customer_id = c.id
-                   AND t.type = 'PAYMENT'
-                WHERE c.debt > 0
-                GROUP BY c.id, c.name, s.name, c.debt
-            )
             SELECT COUNT(*)
-            FROM last_payments lp
-            WHERE lp.last_payment_date IS NULL
-               OR lp.last_payment_date < CURRENT_DATE - (:months * INTERVAL '1 month')
+            FROM customer c
+            WHERE c.enabled = true
+              AND c.debt > 0
+              AND COALESCE(c.last_payment_date, CAST('-infinity' AS date))
+                  < CAST(CURRENT_DATE - (:months * INTERVAL '1 month') AS date)
             """,
             nativeQuery = true)
     Page<OverdueCustomerView> findOverdueCustomers(Pageable pageable, @Param("months") int months);
 
+    @Query(value = "SELECT version FROM customer_search_version WHERE id = 1", nativeQuery = true)
+    Long findSearchVersion();
+
+    /**
+     * Installs the triggers that bump {@code customer_search_version}; a no-op once they exist.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "CALL casero_set_customer_search_tracking(true)", nativeQuery = true)
+    void enableSearchVersionTracking();
+
     interface OverdueCustomerView {
         Long getId();
         String getName();
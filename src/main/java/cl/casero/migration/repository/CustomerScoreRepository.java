@@ -0,0 +1,72 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.CustomerScore;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface CustomerScoreRepository extends JpaRepository<CustomerScore, Long> {
+
+    @Query(value = """
+            SELECT
+                c.id AS id,
+                c.name AS name,
+                c.debt AS debt,
+                cs.score AS score,
+                cs.cycle_count AS cycleCount
+            FROM customer_score cs
+            JOIN customer c ON c.id = cs.customer_id
+            WHERE c.enabled = true
+            ORDER BY cs.score DESC, cs.cycle_count DESC, lower(c.name) ASC
+            """,
+            countQuery = """
+            SELECT COUNT(*)
+            FROM customer_score cs
+            JOIN customer c ON c.id = cs.customer_id
+            WHERE c.enabled = true
+            """,
+            nativeQuery = true)
+    Page<RankingView> findRankingDesc(Pageable pageable);
+
+    @Query(value = """
+            SELECT
+                c.id AS id,
+                c.name AS name,
+                c.debt AS debt,
+                cs.score AS score,
+                cs.cycle_count AS cycleCount
+            FROM customer_score cs
+            JOIN customer c ON c.id = cs.customer_id
+            WHERE c.enabled = true
+            ORDER BY cs.score ASC, cs.cycle_count DESC, lower(c.name) ASC
+            """,
+            countQuery = """
+            SELECT COUNT(*)
+            FROM customer_score cs
+            JOIN customer c ON c.id = cs.customer_id
+            WHERE c.enabled = true
+            """,
+            nativeQuery = true)
+    Page<RankingView> findRankingAsc(Pageable pageable);
+
+    @Query(value = """
+            SELECT c.id
+            FROM customer c
+            LEFT JOIN customer_score cs ON cs.customer_id = c.id
+            WHERE c.enabled = true
+              AND cs.customer_id IS NULL
+            """,
+            nativeQuery = true)
+    List<Long> findEnabledCustomerIdsWithoutScore();
+
+    interface RankingView {
+        Long getId();
+        String getName();
+        Integer getDebt();
+        Double getScore();
+        Integer getCycleCount();
+    }
+}
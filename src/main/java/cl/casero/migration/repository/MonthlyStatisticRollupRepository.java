@@ -0,0 +1,109 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.MonthlyStatisticRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface MonthlyStatisticRollupRepository
+        extends JpaRepository<MonthlyStatisticRollup, MonthlyStatisticRollup.Key> {
+
+    Optional<MonthlyStatisticRollup> findByYearAndMonth(Integer year, Integer month);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO monthly_statistic_rollup (
+                year, month, finished_cards_count, new_cards_count, maintenance_count,
+                total_items_count, payments_amount, sales_amount, updated_at
+            )
+            VALUES (
+                :year, :month, :finishedCards, :newCards, :maintenance,
+                :items, :payments, :sales, CURRENT_TIMESTAMP
+            )
+            ON CONFLICT (year, month) DO UPDATE SET
+                finished_cards_count = monthly_statistic_rollup.finished_cards_count + EXCLUDED.finished_cards_count,
+                new_cards_count = monthly_statistic_rollup.new_cards_count + EXCLUDED.new_cards_count,
+                maintenance_count = monthly_statistic_rollup.maintenance_count + EXCLUDED.maintenance_count,
+                total_items_count = monthly_statistic_rollup.total_items_count + EXCLUDED.total_items_count,
+                payments_amount = monthly_statistic_rollup.payments_amount + EXCLUDED.payments_amount,
+                sales_amount = monthly_statistic_rollup.sales_amount + EXCLUDED.sales_amount,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void increment(@Param("year") int year,
+                   @Param("month") int month,
+                   @Param("finishedCards") int finishedCards,
+                   @Param("newCards") int newCards,
+                   @Param("maintenance") int maintenance,
+                   @Param("items") int items,
+                   @Param("payments") int payments,
+                   @Param("sales") int sales);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM monthly_statistic_rollup
+            WHERE (year * 100 + month) BETWEEN :startKey AND :endKey
+            """, nativeQuery = true)
+    void deleteByMonthKeyBetween(@Param("startKey") int startKey, @Param("endKey") int endKey);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH stats AS (
+                SELECT
+                    EXTRACT(YEAR FROM s.date)::int AS year,
+                    EXTRACT(MONTH FROM s.date)::int AS month,
+                    COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'NEW_SALE') AS new_cards_count,
+                    COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'MAINTENANCE') AS maintenance_count,
+                    COALESCE(SUM(s.items_count) FILTER (WHERE s.type = 'SALE'), 0) AS total_items_count,
+                    COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'PAYMENT'), 0) AS payments_amount,
+                    COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'SALE'), 0) AS sales_amount
+                FROM statistic s
+                WHERE s.date BETWEEN :start AND :end
+                GROUP BY 1, 2
+            ),
+            finished AS (
+                SELECT
+                    EXTRACT(YEAR FROM t.date)::int AS year,
+                    EXTRACT(MONTH FROM t.date)::int AS month,
+                    COUNT(*) AS finished_cards_count
+                FROM transaction t
+                JOIN customer c ON c.id = t.customer_id
+                WHERE t.balance = 0
+                  AND c.enabled = true
+                  AND t.date BETWEEN :start AND :end
+                GROUP BY 1, 2
+            )
+            INSERT INTO monthly_statistic_rollup (
+                year, month, finished_cards_count, new_cards_count, maintenance_count,
+                total_items_count, payments_amount, sales_amount, updated_at
+            )
+            SELECT
+                year,
+                month,
+                COALESCE(f.finished_cards_count, 0),
+                COALESCE(s.new_cards_count, 0),
+                COALESCE(s.maintenance_count, 0),
+                COALESCE(s.total_items_count, 0),
+                COALESCE(s.payments_amount, 0),
+                COALESCE(s.sales_amount, 0),
+                CURRENT_TIMESTAMP
+            FROM stats s
+            FULL OUTER JOIN finished f USING (year, month)
+            ON CONFLICT (year, month) DO UPDATE SET
+                finished_cards_count = EXCLUDED.finished_cards_count,
+                new_cards_count = EXCLUDED.new_cards_count,
+                maintenance_count = EXCLUDED.maintenance_count,
+                total_items_count = EXCLUDED.total_items_count,
+                payments_amount = EXCLUDED.payments_amount,
+                sales_amount = EXCLUDED.sales_amount,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void rebuildBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+}
@@ -1,10 +1,17 @@
 package cl.casero.migration.repository;
 
 import cl.casero.migration.domain.Sector;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface SectorRepository extends JpaRepository<Sector, Long> {
     Optional<Sector> findByNameIgnoreCase(String name);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Sector> findAllByOrderByNameAsc();
 }
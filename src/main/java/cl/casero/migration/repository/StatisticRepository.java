@@ -1,7 +1,6 @@
 package cl.casero.migration.repository;
 
 import cl.casero.migration.domain.Statistic;
-import cl.casero.migration.domain.enums.SaleType;
 import cl.casero.migration.domain.enums.TransactionType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -13,37 +12,34 @@ import java.time.LocalDate;
 
 public interface StatisticRepository extends JpaRepository<Statistic, Long> {
 
-    @Query("""
-            SELECT COUNT(s)
-            FROM Statistic s
-            WHERE s.type = :type
-              AND s.saleType = :saleType
-              AND s.date BETWEEN :start AND :end
-            """)
-    long countByTypeAndSaleType(@Param("type") TransactionType type,
-                                @Param("saleType") SaleType saleType,
-                                @Param("start") LocalDate start,
-                                @Param("end") LocalDate end);
-
-    @Query("""
-            SELECT SUM(s.itemsCount)
-            FROM Statistic s
-            WHERE s.type = :type
-              AND s.date BETWEEN :start AND :end
-            """)
-    Integer sumItemsByType(@Param("type") TransactionType type,
-                           @Param("start") LocalDate start,
-                           @Param("end") LocalDate end);
+    @Query(value = """
+            SELECT
+                (
+                    SELECT COUNT(*)
+                    FROM transaction t
+                    JOIN customer c ON c.id = t.customer_id
+                    WHERE t.balance = 0
+                      AND c.enabled = true
+                      AND t.date BETWEEN :start AND :end
+                ) AS finishedCardsCount,
+                COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'NEW_SALE') AS newCardsCount,
+                COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'MAINTENANCE') AS maintenanceCount,
+                COALESCE(SUM(s.items_count) FILTER (WHERE s.type = 'SALE'), 0) AS totalItemsCount,
+                COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'PAYMENT'), 0) AS paymentsAmount,
+                COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'SALE'), 0) AS salesAmount
+            FROM statistic s
+            WHERE s.date BETWEEN :start AND :end
+            """, nativeQuery = true)
+    MonthlyStatisticView summarizeBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
-    @Query("""
-            SELECT SUM(s.amount)
-            FROM Statistic s
-            WHERE s.type = :type
-              AND s.date BETWEEN :start AND :end
-            """)
-    Integer sumAmountByType(@Param("type") TransactionType type,
-                            @Param("start") LocalDate start,
-                            @Param("end") LocalDate end);
+    interface MonthlyStatisticView {
+        Long getFinishedCardsCount();
+        Long getNewCardsCount();
+        Long getMaintenanceCount();
+        Long getTotalItemsCount();
+        Long getPaymentsAmount();
+        Long getSalesAmount();
+    }
 
     @Transactional
     @Modifying
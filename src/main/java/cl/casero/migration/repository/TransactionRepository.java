@@ -2,14 +2,19 @@ package cl.casero.migration.repository;
 
 import cl.casero.migration.domain.Transaction;
 import cl.casero.migration.domain.enums.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     @Query("""
@@ -31,6 +36,46 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             """)
     List<Transaction> findVisibleByCustomerIdOrderByDateDescIdDesc(@Param("customerId") Long customerId);
 
+    /**
+     * Report rows newest first. A null {@code fromDate} includes the whole history and a
+     * null {@code type} every transaction type.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT
+                t.date AS date,
+                t.type AS type,
+                t.detail AS detail,
+                t.amount AS amount,
+                t.balance AS balance
+            FROM Transaction t
+            JOIN t.customer c
+            WHERE c.id = :customerId
+              AND c.enabled = true
+              AND (CAST(:fromDate AS LocalDate) IS NULL OR t.date >= :fromDate)
+              AND (CAST(:type AS String) IS NULL OR t.type = :type)
+            ORDER BY t.date DESC, t.id DESC
+            """)
+    Stream<ReportRowView> streamReportRows(@Param("customerId") Long customerId,
+                                           @Param("fromDate") LocalDate fromDate,
+                                           @Param("type") TransactionType type);
+
+    @Query("""
+            SELECT COUNT(t)
+            FROM Transaction t
+            JOIN t.customer c
+            WHERE c.id = :customerId
+              AND c.enabled = true
+              AND (CAST(:fromDate AS LocalDate) IS NULL OR t.date >= :fromDate)
+              AND (CAST(:type AS String) IS NULL OR t.type = :type)
+            """)
+    long countReportRows(@Param("customerId") Long customerId,
+                         @Param("fromDate") LocalDate fromDate,
+                         @Param("type") TransactionType type);
+
     @Query("""
             SELECT t
             FROM Transaction t
@@ -45,49 +90,193 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             SELECT t
             FROM Transaction t
             JOIN t.customer c
-            WHERE c.enabled = true
+            WHERE c.id = :customerId
+              AND c.enabled = true
+            ORDER BY t.createdAt DESC, t.id DESC
             """)
-    Page<Transaction> findAllVisible(Pageable pageable);
+    List<Transaction> findVisibleHistoryDesc(@Param("customerId") Long customerId, Pageable limit);
 
     @Query("""
             SELECT t
             FROM Transaction t
             JOIN t.customer c
-            WHERE c.enabled = true
-              AND t.type = :type
+            WHERE c.id = :customerId
+              AND c.enabled = true
+              AND (t.createdAt, t.id) < (:createdAt, :id)
+            ORDER BY t.createdAt DESC, t.id DESC
             """)
-    Page<Transaction> findVisibleByType(@Param("type") TransactionType type, Pageable pageable);
+    List<Transaction> findVisibleHistoryDescAfter(@Param("customerId") Long customerId,
+                                                  @Param("createdAt") OffsetDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable limit);
 
     @Query("""
-            SELECT COUNT(t)
+            SELECT t
             FROM Transaction t
             JOIN t.customer c
-            WHERE t.balance = 0
+            WHERE c.id = :customerId
               AND c.enabled = true
-              AND t.date BETWEEN :start AND :end
+            ORDER BY t.createdAt ASC, t.id ASC
             """)
-    long countFinishedCards(@Param("start") LocalDate start, @Param("end") LocalDate end);
+    List<Transaction> findVisibleHistoryAsc(@Param("customerId") Long customerId, Pageable limit);
 
     @Query("""
-            SELECT SUM(t.amount)
+            SELECT t
             FROM Transaction t
             JOIN t.customer c
-            WHERE t.type = :type
+            WHERE c.id = :customerId
               AND c.enabled = true
-              AND t.date BETWEEN :start AND :end
+              AND (t.createdAt, t.id) > (:createdAt, :id)
+            ORDER BY t.createdAt ASC, t.id ASC
             """)
-    Integer sumByTypeAndDateRange(@Param("type") TransactionType type,
-                                  @Param("start") LocalDate start,
-                                  @Param("end") LocalDate end);
+    List<Transaction> findVisibleHistoryAscAfter(@Param("customerId") Long customerId,
+                                                 @Param("createdAt") OffsetDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable limit);
 
     @Query("""
-            SELECT t
+            SELECT
+                t.id AS id,
+                t.date AS date,
+                t.createdAt AS createdAt,
+                t.type AS type,
+                t.detail AS detail,
+                t.amount AS amount,
+                t.balance AS balance,
+                c.id AS customerId,
+                c.name AS customerName
             FROM Transaction t
             JOIN t.customer c
             WHERE c.enabled = true
-              AND t.date BETWEEN :start AND :end
+            ORDER BY t.date DESC, t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionListView> findVisibleFeed(Pageable limit);
+
+    @Query("""
+            SELECT
+                t.id AS id,
+                t.date AS date,
+                t.createdAt AS createdAt,
+                t.type AS type,
+                t.detail AS detail,
+                t.amount AS amount,
+                t.balance AS balance,
+                c.id AS customerId,
+                c.name AS customerName
+            FROM Transaction t
+            JOIN t.customer c
+            WHERE c.enabled = true
+              AND (t.date, t.createdAt, t.id) < (:date, :createdAt, :id)
+            ORDER BY t.date DESC, t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionListView> findVisibleFeedAfter(@Param("date") LocalDate date,
+                                                    @Param("createdAt") OffsetDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable limit);
+
+    @Query("""
+            SELECT
+                t.id AS id,
+                t.date AS date,
+                t.createdAt AS createdAt,
+                t.type AS type,
+                t.detail AS detail,
+                t.amount AS amount,
+                t.balance AS balance,
+                c.id AS customerId,
+                c.name AS customerName
+            FROM Transaction t
+            JOIN t.customer c
+            WHERE c.enabled = true
+              AND t.type = :type
+            ORDER BY t.date DESC, t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionListView> findVisibleFeedByType(@Param("type") TransactionType type, Pageable limit);
+
+    @Query("""
+            SELECT
+                t.id AS id,
+                t.date AS date,
+                t.createdAt AS createdAt,
+                t.type AS type,
+                t.detail AS detail,
+                t.amount AS amount,
+                t.balance AS balance,
+                c.id AS customerId,
+                c.name AS customerName
+            FROM Transaction t
+            JOIN t.customer c
+            WHERE c.enabled = true
+              AND t.type = :type
+              AND (t.date, t.createdAt, t.id) < (:date, :createdAt, :id)
+            ORDER BY t.date DESC, t.createdAt DESC, t.id DESC
+            """)
+    List<TransactionListView> findVisibleFeedByTypeAfter(@Param("type") TransactionType type,
+                                                    @Param("date") LocalDate date,
+                                                    @Param("createdAt") OffsetDateTime createdAt,
+                                                    @Param("id") Long id,
+                                                    Pageable limit);
+
+    @Query(value = """
+            SELECT GREATEST(c.reltuples, 0)::bigint
+            FROM pg_class c
+            WHERE c.oid = 'transaction'::regclass
+            """, nativeQuery = true)
+    long estimateCount();
+
+    // A type outside most_common_vals gets the remaining frequency split evenly among the
+    // remaining distinct values; null when the column has no statistics yet.
+    @Query(value = """
+            SELECT CASE
+                WHEN s.attname IS NULL THEN NULL
+                WHEN array_position(s.most_common_vals::text::text[], :type) IS NOT NULL
+                    THEN GREATEST(c.reltuples, 0)
+                         * s.most_common_freqs[array_position(s.most_common_vals::text::text[], :type)]
+                WHEN s.n_distinct > COALESCE(cardinality(s.most_common_freqs), 0)
+                    THEN GREATEST(c.reltuples, 0)
+                         * (1 - COALESCE((SELECT SUM(f) FROM unnest(s.most_common_freqs) f), 0))
+                         / (s.n_distinct - COALESCE(cardinality(s.most_common_freqs), 0))
+                ELSE NULL
+            END::bigint
+            FROM pg_class c
+            LEFT JOIN pg_stats s
+                ON s.schemaname = current_schema()
+               AND s.tablename = 'transaction'
+               AND s.attname = 'type'
+            WHERE c.oid = 'transaction'::regclass
+            """, nativeQuery = true)
+    Long estimateCountByType(@Param("type") String type);
+
+    @Query("""
+            SELECT MIN(t.date) AS firstDate, MAX(t.date) AS lastDate
+            FROM Transaction t
+            WHERE t.customer.id = :customerId
+              AND t.balance = 0
+            """)
+    DateRangeView findFinishedCardDateRange(@Param("customerId") Long customerId);
+
+    @Query("""
+            SELECT MAX(t.date)
+            FROM Transaction t
+            WHERE t.customer.id = :customerId
+              AND t.type = :type
             """)
-    List<Transaction> findVisibleByDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+    LocalDate findLastDateByCustomerIdAndType(@Param("customerId") Long customerId,
+                                              @Param("type") TransactionType type);
+
+    @Query(value = """
+            SELECT
+                CAST(date_trunc('month', t.date) AS date) AS month,
+                COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'SALE'), 0) AS salesTotal,
+                COALESCE(SUM(t.amount) FILTER (WHERE t.type = 'PAYMENT'), 0) AS paymentsTotal
+            FROM transaction t
+            JOIN customer c ON c.id = t.customer_id
+            WHERE c.enabled = true
+              AND t.date BETWEEN :start AND :end
+            GROUP BY date_trunc('month', t.date)
+            ORDER BY month
+            """, nativeQuery = true)
+    List<MonthlyTotalsView> sumVisibleByMonthBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
     @Query(value = """
             WITH ordered_transactions AS (
@@ -103,7 +292,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                             OVER (PARTITION BY t.customer_id ORDER BY t.date, t.id ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING),
                         0) AS cycle_group
                 FROM transaction t
-                WHERE t.customer_id IN (:customerIds)
+                WHERE t.customer_id = ANY(CAST(:customerIds AS bigint[]))
             ),
             cycle_bounds AS (
                 SELECT
@@ -179,7 +368,49 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                      ps.interval_count, ps.late_interval_count, ps.payment_month_count
             ORDER BY cb.customer_id, cb.cycle_group
             """, nativeQuery = true)
-    List<CustomerCycleProjection> findCustomerCycleStats(@Param("customerIds") List<Long> customerIds);
+    List<CustomerCycleProjection> findCustomerCycleStats(@Param("customerIds") Long[] customerIds);
+
+    @Query(value = """
+            SELECT
+                t.customer_id AS customerId,
+                COUNT(*) AS transactionCount,
+                MAX(t.id) AS lastTransactionId
+            FROM transaction t
+            WHERE t.customer_id = ANY(CAST(:customerIds AS bigint[]))
+            GROUP BY t.customer_id
+            """, nativeQuery = true)
+    List<LedgerVersionView> findLedgerVersions(@Param("customerIds") Long[] customerIds);
+
+    interface ReportRowView {
+        LocalDate getDate();
+        TransactionType getType();
+        String getDetail();
+        Integer getAmount();
+        Integer getBalance();
+    }
+
+    interface TransactionListView {
+        Long getId();
+        LocalDate getDate();
+        OffsetDateTime getCreatedAt();
+        TransactionType getType();
+        String getDetail();
+        Integer getAmount();
+        Integer getBalance();
+        Long getCustomerId();
+        String getCustomerName();
+    }
+
+    interface MonthlyTotalsView {
+        LocalDate getMonth();
+        Long getSalesTotal();
+        Long getPaymentsTotal();
+    }
+
+    interface DateRangeView {
+        LocalDate getFirstDate();
+        LocalDate getLastDate();
+    }
 
     interface CustomerCycleProjection {
         Long getCustomerId();
@@ -196,4 +427,10 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
         Integer getCycleMonthCount();
         Boolean getHasOutstandingDebt();
     }
+
+    interface LedgerVersionView {
+        Long getCustomerId();
+        Long getTransactionCount();
+        Long getLastTransactionId();
+    }
 }
@@ -9,6 +9,8 @@ public interface AppConfigService {
 
     boolean isAuditEnabled();
 
+    void refreshIfChanged();
+
     List<AppConfig> listAll();
 
     void updateValue(String key, String value);
@@ -0,0 +1,82 @@
+package cl.casero.migration.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Folds raw {@code PAGE_VIEW} audit rows older than {@code audit.compaction.page-view-age}
+ * into hourly {@code (user, hour, path)} counters. Business events are never touched.
+ * Each chunk is moved by a single DELETE ... RETURNING statement, so a crash between
+ * chunks neither loses nor double-counts views.
+ */
+@Slf4j
+@Component
+public class AuditCompactionJob {
+
+    private static final String COMPACT_SQL = """
+            WITH moved AS (
+                DELETE FROM audit_event ae
+                WHERE (ae.id, ae.created_at) IN (
+                    SELECT e.id, e.created_at
+                    FROM audit_event e
+                    WHERE e.event_type = 'PAGE_VIEW'
+                      AND e.created_at < ?
+                    LIMIT ?
+                )
+                RETURNING ae.user_id, ae.created_at, ae.payload ->> 'path' AS path
+            )
+            INSERT INTO audit_page_view_hourly (user_id, hour, path, view_count)
+            SELECT m.user_id,
+                   date_trunc('hour', m.created_at),
+                   COALESCE(split_part(m.path, '?', 1), ''),
+                   COUNT(*)
+            FROM moved m
+            GROUP BY 1, 2, 3
+            ON CONFLICT ((COALESCE(user_id, 0)), hour, path)
+            DO UPDATE SET view_count = audit_page_view_hourly.view_count + EXCLUDED.view_count
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration pageViewAge;
+    private final int batchSize;
+
+    public AuditCompactionJob(
+        JdbcTemplate jdbcTemplate,
+        @Value("${audit.compaction.page-view-age:P7D}") Duration pageViewAge,
+        @Value("${audit.compaction.batch-size:5000}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageViewAge = pageViewAge;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    @Scheduled(cron = "${audit.compaction.cron:0 30 * * * *}", zone = "America/Santiago")
+    public void compactPageViews() {
+        Instant cutoff = Instant.now().minus(pageViewAge).truncatedTo(ChronoUnit.HOURS);
+        int updatedCounters;
+        int chunks = 0;
+
+        try {
+            do {
+                updatedCounters = jdbcTemplate.update(COMPACT_SQL, cutoff.atOffset(ZoneOffset.UTC), batchSize);
+                chunks++;
+            } while (updatedCounters > 0);
+        } catch (Exception ex) {
+            log.warn("No se pudieron compactar las vistas de página: {}", ex.getMessage());
+            return;
+        }
+
+        if (chunks > 1) {
+            log.info("Vistas de página anteriores a {} compactadas en {} lotes", cutoff, chunks - 1);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.enums.AuditEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers audit events in a bounded queue and writes them from a background thread
+ * with JDBC batch inserts, flushing every {@code audit.writer.batch-size} events or
+ * {@code audit.writer.flush-interval-ms} milliseconds, whichever comes first.
+ */
+@Slf4j
+@Component
+public class AuditEventWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO audit_event (user_id, event_type, payload, ip, user_agent, created_at)
+            VALUES (?, ?, CAST(? AS jsonb), CAST(? AS inet), ?, ?)
+            """;
+
+    public enum OverflowPolicy {
+        DROP_NEWEST,
+        DROP_OLDEST,
+        CALLER_RUNS
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppConfigService appConfigService;
+    private final BlockingQueue<PendingEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long shutdownTimeoutMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final Counter writtenEvents;
+    private final Counter droppedEvents;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditEventWriter(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        AppConfigService appConfigService,
+        MeterRegistry meterRegistry,
+        @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+        @Value("${audit.writer.batch-size:100}") int batchSize,
+        @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMillis,
+        @Value("${audit.writer.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis,
+        @Value("${audit.writer.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.appConfigService = appConfigService;
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushIntervalMillis = Math.max(flushIntervalMillis, 1L);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.writtenEvents = Counter.builder("casero.audit.writer.written")
+                .description("Audit events inserted by the background writer")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("casero.audit.writer.dropped")
+                .description("Audit events discarded because the queue was full or the insert failed")
+                .register(meterRegistry);
+        Gauge.builder("casero.audit.writer.queue", queue, BlockingQueue::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(AuditEventType eventType, Long userId, Map<String, Object> payload, String ip, String userAgent) {
+        PendingEvent event = new PendingEvent(userId, eventType, payload, ip, userAgent, Instant.now());
+
+        if (queue.offer(event)) {
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                if (queue.poll() != null) {
+                    droppedEvents.increment();
+                }
+                if (!queue.offer(event)) {
+                    droppedEvents.increment();
+                }
+            }
+            case CALLER_RUNS -> write(List.of(event));
+            default -> droppedEvents.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "audit-event-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        if (worker != null) {
+            try {
+                worker.join(shutdownTimeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<PendingEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the embedded web server, so events logged by the
+     * last in-flight requests are still drained while the data source is open.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runLoop() {
+        List<PendingEvent> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    PendingEvent next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                write(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!appConfigService.isAuditEnabled()) {
+                return;
+            }
+
+            insert(batch);
+            writtenEvents.increment(batch.size());
+        } catch (Exception ex) {
+            if (batch.size() == 1) {
+                droppedEvents.increment();
+                log.warn("No se pudo registrar un evento de auditoría: {}", ex.getMessage());
+                return;
+            }
+            // One bad row must not discard the rest of the batch, so fall back to single inserts.
+            log.warn("Falló el lote de {} eventos de auditoría, reintentando uno a uno: {}", batch.size(), ex.getMessage());
+            for (PendingEvent event : batch) {
+                write(List.of(event));
+            }
+        }
+    }
+
+    // Runs in its own transaction so a failed batch leaves no partial rows behind before the retry.
+    private void insert(List<PendingEvent> batch) throws JsonProcessingException {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (PendingEvent event : batch) {
+            rows.add(new Object[]{
+                    event.userId(),
+                    event.eventType().name(),
+                    toJson(event.payload()),
+                    event.ip(),
+                    event.userAgent(),
+                    event.createdAt().atOffset(ZoneOffset.UTC)
+            });
+        }
+
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, rows, new int[]{
+                Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP_WITH_TIMEZONE
+        }));
+    }
+
+    private String toJson(Map<String, Object> payload) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payload != null ? payload : Map.of());
+    }
+
+    private record PendingEvent(
+        Long userId,
+        AuditEventType eventType,
+        Map<String, Object> payload,
+        String ip,
+        String userAgent,
+        Instant createdAt
+    ) {
+    }
+}
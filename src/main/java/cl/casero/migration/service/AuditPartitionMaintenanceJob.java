@@ -0,0 +1,116 @@
+package cl.casero.migration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code audit_event} ahead of time and applies the
+ * retention policy: partitions older than {@code audit.retention.months} are detached and
+ * kept as standalone archive tables, or dropped when the mode is {@code DROP}. Retention
+ * is off until an operator sets a positive number of months.
+ */
+@Slf4j
+@Component
+public class AuditPartitionMaintenanceJob {
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_event_y(\\d{4})m(\\d{2})");
+
+    public enum RetentionMode {
+        DROP,
+        ARCHIVE
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final RetentionMode retentionMode;
+    private final Counter failures;
+
+    public AuditPartitionMaintenanceJob(
+        JdbcTemplate jdbcTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${audit.partitions.months-ahead:3}") int monthsAhead,
+        @Value("${audit.retention.months:0}") int retentionMonths,
+        @Value("${audit.retention.mode:ARCHIVE}") RetentionMode retentionMode
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = Math.max(monthsAhead, 1);
+        this.retentionMonths = retentionMonths;
+        this.retentionMode = retentionMode;
+        this.failures = Counter.builder("casero.audit.partitions.failures")
+                .description("Audit partition creations or retention steps that failed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${audit.partitions.cron:0 15 0 * * *}", zone = "America/Santiago")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now(DEFAULT_ZONE);
+
+        for (int offset = 0; offset <= monthsAhead; offset++) {
+            LocalDate monthStart = current.plusMonths(offset).atDay(1);
+            try {
+                jdbcTemplate.queryForList("SELECT 1 FROM (SELECT casero_create_audit_partition(?)) AS created", monthStart);
+            } catch (Exception ex) {
+                failures.increment();
+                log.error("No se pudo crear la partición de auditoría para {}", monthStart, ex);
+            }
+        }
+
+        if (retentionMonths > 0) {
+            applyRetention(current.minusMonths(retentionMonths));
+        }
+    }
+
+    private void applyRetention(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE i.inhparent = 'audit_event'::regclass
+                ORDER BY child.relname
+                """, String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+
+            try {
+                if (retentionMode == RetentionMode.ARCHIVE) {
+                    jdbcTemplate.execute("ALTER TABLE audit_event DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " RENAME TO " + partition.replace("audit_event_", "audit_event_archive_"));
+                    log.info("Partición de auditoría {} archivada", partition);
+                } else {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                    log.info("Partición de auditoría {} eliminada", partition);
+                }
+            } catch (Exception ex) {
+                failures.increment();
+                log.error("No se pudo aplicar la retención a {}", partition, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.repository.TransactionRepository;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the same per-cycle statistics as {@link TransactionRepository#findCustomerCycleStats}
+ * in a single pass over the customers' transactions ordered by {@code (customer_id, date, id)},
+ * which PostgreSQL serves straight from {@code idx_transaction_customer_date_id}. A cycle ends
+ * on the first movement that leaves the balance at zero; payments, refunds, forgiveness and
+ * fault discounts count as payments, and intervals over 45 days are late.
+ */
+@Component
+public class CustomerCycleStatsEngine {
+
+    private static final String CURSOR_SQL = """
+            SELECT t.customer_id, t.date, t.type, t.balance
+            FROM transaction t
+            WHERE t.customer_id = ANY(?)
+            ORDER BY t.customer_id, t.date, t.id
+            """;
+    private static final int FETCH_SIZE = 2000;
+    private static final int LATE_INTERVAL_DAYS = 45;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public CustomerCycleStatsEngine(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<TransactionRepository.CustomerCycleProjection> compute(Long[] customerIds) {
+        Accumulator accumulator = new Accumulator();
+
+        // The driver only honours the fetch size, and streams the cursor, inside a transaction.
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(CURSOR_SQL);
+                    statement.setFetchSize(FETCH_SIZE);
+                    statement.setArray(1, connection.createArrayOf("bigint", customerIds));
+                    return statement;
+                },
+                (RowCallbackHandler) rs -> accumulator.accept(
+                        rs.getLong(1),
+                        rs.getObject(2, LocalDate.class).toEpochDay(),
+                        isPayment(rs.getString(3)),
+                        rs.getInt(4))));
+
+        return accumulator.finish();
+    }
+
+    private static boolean isPayment(String type) {
+        return switch (type) {
+            case "PAYMENT", "REFUND", "DEBT_FORGIVENESS", "FAULT_DISCOUNT" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Folds rows that arrive ordered by customer, date and id into cycle statistics,
+     * keeping only primitive running totals for the cycle currently open.
+     */
+    static final class Accumulator {
+        private final List<TransactionRepository.CustomerCycleProjection> cycles = new ArrayList<>();
+
+        private boolean hasCustomer;
+        private long customerId;
+        private int cycleGroup;
+        private boolean cycleOpen;
+        private long startDay;
+        private long endDay;
+        private int lastBalance;
+        private int paymentCount;
+        private long lastPaymentDay;
+        private int maxInterval;
+        private long totalInterval;
+        private int intervalCount;
+        private int lateIntervalCount;
+        private int lastPaymentMonth;
+        private int paymentMonthCount;
+
+        void accept(long rowCustomerId, long epochDay, boolean payment, int balance) {
+            if (!hasCustomer || rowCustomerId != customerId) {
+                if (cycleOpen) {
+                    closeCycle();
+                }
+                hasCustomer = true;
+                customerId = rowCustomerId;
+                cycleGroup = 0;
+            }
+
+            if (!cycleOpen) {
+                openCycle(epochDay);
+            }
+
+            endDay = epochDay;
+            lastBalance = balance;
+
+            if (payment) {
+                recordPayment(epochDay);
+            }
+
+            if (balance == 0) {
+                closeCycle();
+                cycleGroup++;
+            }
+        }
+
+        List<TransactionRepository.CustomerCycleProjection> finish() {
+            if (cycleOpen) {
+                closeCycle();
+            }
+            return cycles;
+        }
+
+        private void openCycle(long epochDay) {
+            cycleOpen = true;
+            startDay = epochDay;
+            paymentCount = 0;
+            maxInterval = 0;
+            totalInterval = 0;
+            intervalCount = 0;
+            lateIntervalCount = 0;
+            paymentMonthCount = 0;
+        }
+
+        private void recordPayment(long epochDay) {
+            int month = monthKey(epochDay);
+
+            if (paymentCount > 0) {
+                int interval = (int) (epochDay - lastPaymentDay);
+                maxInterval = intervalCount == 0 ? interval : Math.max(maxInterval, interval);
+                totalInterval += interval;
+                intervalCount++;
+                if (interval > LATE_INTERVAL_DAYS) {
+                    lateIntervalCount++;
+                }
+            }
+
+            // Payments arrive in date order, so a month is new exactly when it differs from the previous one.
+            if (paymentCount == 0 || month != lastPaymentMonth) {
+                paymentMonthCount++;
+                lastPaymentMonth = month;
+            }
+
+            paymentCount++;
+            lastPaymentDay = epochDay;
+        }
+
+        private void closeCycle() {
+            cycleOpen = false;
+            boolean paid = paymentCount > 0;
+
+            cycles.add(new CycleStats(
+                    customerId,
+                    cycleGroup,
+                    LocalDate.ofEpochDay(startDay),
+                    LocalDate.ofEpochDay(endDay),
+                    paid ? LocalDate.ofEpochDay(lastPaymentDay) : null,
+                    paymentCount,
+                    paid && intervalCount > 0 ? maxInterval : null,
+                    paid ? totalInterval : null,
+                    paid ? intervalCount : null,
+                    paid ? lateIntervalCount : null,
+                    paid ? (long) paymentMonthCount : null,
+                    monthKey(endDay) - monthKey(startDay) + 1,
+                    lastBalance > 0));
+        }
+
+        private static int monthKey(long epochDay) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            return date.getYear() * 12 + date.getMonthValue() - 1;
+        }
+    }
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    static final class CycleStats implements TransactionRepository.CustomerCycleProjection {
+        private final Long customerId;
+        private final Integer cycleGroup;
+        private final LocalDate cycleStartDate;
+        private final LocalDate cycleEndDate;
+        private final LocalDate lastPaymentDate;
+        private final Integer totalPayments;
+        private final Integer maxIntervalBetweenPayments;
+        private final Long totalIntervalDays;
+        private final Integer intervalCount;
+        private final Integer lateIntervalCount;
+        private final Long paymentMonthCount;
+        private final Integer cycleMonthCount;
+        private final Boolean hasOutstandingDebt;
+
+        static CycleStats copyOf(TransactionRepository.CustomerCycleProjection projection) {
+            return new CycleStats(
+                    projection.getCustomerId(),
+                    projection.getCycleGroup(),
+                    projection.getCycleStartDate(),
+                    projection.getCycleEndDate(),
+                    projection.getLastPaymentDate(),
+                    projection.getTotalPayments(),
+                    projection.getMaxIntervalBetweenPayments(),
+                    projection.getTotalIntervalDays(),
+                    projection.getIntervalCount(),
+                    projection.getLateIntervalCount(),
+                    projection.getPaymentMonthCount(),
+                    projection.getCycleMonthCount(),
+                    projection.getHasOutstandingDebt());
+        }
+    }
+}
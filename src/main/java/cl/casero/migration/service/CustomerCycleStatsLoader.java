@@ -0,0 +1,177 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads the per-cycle payment statistics used by the customer score. The ids are bound
+ * as a single {@code bigint[]}, so the statement text and its plan stay the same for any
+ * number of customers; inputs larger than {@code customer.score.cycle-stats.chunk-size}
+ * are split and the chunks run in parallel, each one on its own pooled connection.
+ * {@code customer.score.cycle-stats.engine} selects the SQL query, the streaming
+ * {@link CustomerCycleStatsEngine}, or SHADOW, which serves the SQL results and
+ * reports every chunk where the Java engine disagrees.
+ */
+@Slf4j
+@Component
+public class CustomerCycleStatsLoader {
+
+    public enum Engine {
+        SQL,
+        JAVA,
+        SHADOW
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final CustomerCycleStatsEngine customerCycleStatsEngine;
+    private final Engine engine;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Timer sqlTimer;
+    private final Timer javaTimer;
+    private final Counter shadowMismatches;
+
+    public CustomerCycleStatsLoader(
+        TransactionRepository transactionRepository,
+        CustomerCycleStatsEngine customerCycleStatsEngine,
+        MeterRegistry meterRegistry,
+        @Value("${customer.score.cycle-stats.engine:SQL}") Engine engine,
+        @Value("${customer.score.cycle-stats.chunk-size:5000}") int chunkSize,
+        @Value("${customer.score.cycle-stats.parallelism:3}") int parallelism
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.customerCycleStatsEngine = customerCycleStatsEngine;
+        this.engine = engine;
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.sqlTimer = Timer.builder("casero.customer.cycle-stats.fetch")
+                .description("Time spent loading cycle statistics for one chunk of customers")
+                .tag("engine", "sql")
+                .register(meterRegistry);
+        this.javaTimer = Timer.builder("casero.customer.cycle-stats.fetch")
+                .description("Time spent loading cycle statistics for one chunk of customers")
+                .tag("engine", "java")
+                .register(meterRegistry);
+        this.shadowMismatches = Counter.builder("casero.customer.cycle-stats.shadow.mismatches")
+                .description("Chunks where the Java cycle engine disagreed with the SQL query")
+                .register(meterRegistry);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(parallelism, 1), runnable -> {
+            Thread thread = new Thread(runnable, "customer-cycle-stats-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Map<Long, List<TransactionRepository.CustomerCycleProjection>> load(Collection<Long> customerIds) {
+        if (customerIds == null || customerIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Long[] ids = customerIds.stream().distinct().sorted().toArray(Long[]::new);
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> grouped = new HashMap<>(ids.length * 2);
+
+        if (ids.length <= chunkSize || !canRunOutsideCallerTransaction()) {
+            for (int start = 0; start < ids.length; start += chunkSize) {
+                Long[] chunk = Arrays.copyOfRange(ids, start, Math.min(start + chunkSize, ids.length));
+                merge(grouped, fetch(chunk));
+            }
+            return grouped;
+        }
+
+        List<CompletableFuture<List<TransactionRepository.CustomerCycleProjection>>> futures = new ArrayList<>();
+        for (int start = 0; start < ids.length; start += chunkSize) {
+            Long[] chunk = Arrays.copyOfRange(ids, start, Math.min(start + chunkSize, ids.length));
+            futures.add(CompletableFuture.supplyAsync(() -> fetch(chunk), executor));
+        }
+
+        try {
+            for (CompletableFuture<List<TransactionRepository.CustomerCycleProjection>> future : futures) {
+                merge(grouped, future.join());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+
+        return grouped;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<TransactionRepository.CustomerCycleProjection> fetch(Long[] chunk) {
+        if (engine == Engine.JAVA) {
+            return javaTimer.record(() -> customerCycleStatsEngine.compute(chunk));
+        }
+
+        List<TransactionRepository.CustomerCycleProjection> stats =
+                sqlTimer.record(() -> transactionRepository.findCustomerCycleStats(chunk));
+
+        if (engine == Engine.SHADOW) {
+            compareWithEngine(chunk, stats);
+        }
+
+        return stats;
+    }
+
+    private void compareWithEngine(Long[] chunk, List<TransactionRepository.CustomerCycleProjection> expected) {
+        try {
+            List<TransactionRepository.CustomerCycleProjection> actual =
+                    javaTimer.record(() -> customerCycleStatsEngine.compute(chunk));
+            List<CustomerCycleStatsEngine.CycleStats> expectedCopy = expected.stream()
+                    .map(CustomerCycleStatsEngine.CycleStats::copyOf)
+                    .toList();
+
+            if (!expectedCopy.equals(actual)) {
+                shadowMismatches.increment();
+                log.warn("El cálculo de ciclos en Java difiere de la consulta SQL para {} clientes (desde {} hasta {})",
+                        chunk.length, chunk[0], chunk[chunk.length - 1]);
+            }
+        } catch (Exception ex) {
+            shadowMismatches.increment();
+            log.warn("No se pudo comparar el cálculo de ciclos en Java: {}", ex.getMessage());
+        }
+    }
+
+    // Worker threads use their own connections and cannot see rows the caller has not committed yet.
+    private static boolean canRunOutsideCallerTransaction() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static void merge(
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> grouped,
+        List<TransactionRepository.CustomerCycleProjection> stats
+    ) {
+        for (TransactionRepository.CustomerCycleProjection projection : stats) {
+            if (projection.getCustomerId() == null) {
+                continue;
+            }
+
+            grouped.computeIfAbsent(projection.getCustomerId(), unused -> new ArrayList<>()).add(projection);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.domain.Sector;
+import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.service.dto.ReportExportFormat;
+import cl.casero.migration.service.dto.ReportExportStatus;
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Renders transaction reports for many customers in the background. Each report is
+ * written to a temporary file by a bounded pool of render threads and the parts are
+ * then combined into a single PDF or a ZIP that can be downloaded while the job is kept.
+ */
+@Slf4j
+@Service
+public class CustomerReportExportService {
+
+    private static final String RANGE_LABEL = "Todas las transacciones";
+
+    private final CustomerRepository customerRepository;
+    private final CustomerReportService customerReportService;
+    private final SectorService sectorService;
+    private final Duration retention;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ThreadPoolExecutor renderExecutor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Timer renderTimer;
+    private final Counter renderedReports;
+    private final DistributionSummary throughput;
+
+    public CustomerReportExportService(
+        CustomerRepository customerRepository,
+        CustomerReportService customerReportService,
+        SectorService sectorService,
+        MeterRegistry meterRegistry,
+        @Value("${customer.report.export.threads:4}") int threads,
+        @Value("${customer.report.export.max-queued-jobs:4}") int maxQueuedJobs,
+        @Value("${customer.report.export.retention:PT1H}") Duration retention
+    ) {
+        this.customerRepository = customerRepository;
+        this.customerReportService = customerReportService;
+        this.sectorService = sectorService;
+        this.retention = retention;
+        this.jobExecutor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(maxQueuedJobs, 1)),
+                threadFactory("report-export-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.renderExecutor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                threadFactory("report-export-render-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.renderTimer = Timer.builder("casero.report.export.render")
+                .description("Time spent rendering a single customer report in a bulk export")
+                .register(meterRegistry);
+        this.renderedReports = Counter.builder("casero.report.export.reports")
+                .description("Customer reports rendered by bulk exports")
+                .register(meterRegistry);
+        this.throughput = DistributionSummary.builder("casero.report.export.throughput")
+                .description("Reports per second achieved by each finished bulk export")
+                .baseUnit("reports/s")
+                .register(meterRegistry);
+    }
+
+    public ReportExportStatus startSectorExport(Long sectorId, ReportExportFormat format) {
+        Sector sector = sectorService.get(sectorId);
+        List<Customer> customers = customerRepository.findAllByEnabledTrueAndSectorIdOrderByNameAsc(sectorId);
+        return submit(sector.getName(), customers, format);
+    }
+
+    public ReportExportStatus startCustomerExport(Collection<Long> customerIds, ReportExportFormat format) {
+        List<Customer> customers = customerRepository.findAllByEnabledTrueAndIdIn(customerIds)
+                .stream()
+                .sorted(Comparator.comparing(Customer::getName, String.CASE_INSENSITIVE_ORDER))
+                .toList();
+        return submit("seleccion", customers, format);
+    }
+
+    public Optional<ReportExportStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ExportJob::snapshot);
+    }
+
+    public Optional<Path> getResult(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || job.state != ReportExportStatus.State.COMPLETED) {
+            return Optional.empty();
+        }
+        return Optional.of(job.result);
+    }
+
+    @Scheduled(fixedDelayString = "${customer.report.export.cleanup-interval:PT15M}")
+    public void purgeExpiredJobs() {
+        Instant threshold = Instant.now().minus(retention);
+
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(threshold)) {
+                return false;
+            }
+            deleteDirectory(job.directory);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+        renderExecutor.shutdownNow();
+        jobs.values().forEach(job -> deleteDirectory(job.directory));
+    }
+
+    private ReportExportStatus submit(String label, List<Customer> customers, ReportExportFormat format) {
+        if (customers.isEmpty()) {
+            throw new IllegalArgumentException("No hay clientes activos para exportar");
+        }
+
+        ExportJob job;
+        try {
+            job = new ExportJob(UUID.randomUUID().toString(), label, format, customers,
+                    Files.createTempDirectory("casero-report-export-"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo preparar la exportación", e);
+        }
+
+        jobs.put(job.id, job);
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteDirectory(job.directory);
+            throw new IllegalStateException("Hay demasiadas exportaciones en curso, intenta más tarde");
+        }
+
+        return job.snapshot();
+    }
+
+    private void run(ExportJob job) {
+        job.startedAt = Instant.now();
+        job.state = ReportExportStatus.State.RUNNING;
+
+        try {
+            Path[] parts = renderParts(job);
+            Path result = job.directory.resolve("export." + job.format.getExtension());
+
+            try (OutputStream out = Files.newOutputStream(result)) {
+                if (job.format == ReportExportFormat.ZIP) {
+                    writeZip(job, parts, out);
+                } else {
+                    writeMergedPdf(parts, out);
+                }
+            }
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+
+            job.result = result;
+            job.finishedAt = Instant.now();
+            job.state = ReportExportStatus.State.COMPLETED;
+
+            double reportsPerSecond = job.reportsPerSecond();
+            throughput.record(reportsPerSecond);
+            log.info("Exportación {} completada: {} informes a {} informes/s",
+                    job.id, job.customers.size(), String.format("%.2f", reportsPerSecond));
+        } catch (Exception e) {
+            job.error = "No se pudo generar la exportación";
+            job.finishedAt = Instant.now();
+            job.state = ReportExportStatus.State.FAILED;
+            log.warn("Exportación {} fallida", job.id, e);
+        }
+    }
+
+    private Path[] renderParts(ExportJob job) {
+        Path[] parts = new Path[job.customers.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(parts.length);
+
+        for (int i = 0; i < parts.length; i++) {
+            int index = i;
+            Customer customer = job.customers.get(index);
+            parts[index] = job.directory.resolve(String.format("%05d.pdf", index));
+            futures.add(CompletableFuture.runAsync(() -> renderPart(job, customer, parts[index]), renderExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        return parts;
+    }
+
+    private void renderPart(ExportJob job, Customer customer, Path target) {
+        renderTimer.record(() -> {
+            try (OutputStream out = Files.newOutputStream(target)) {
+                customerReportService.writeTransactionsReport(customer, null, RANGE_LABEL, null, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        renderedReports.increment();
+        job.completed.incrementAndGet();
+    }
+
+    private static void writeMergedPdf(Path[] parts, OutputStream out) throws IOException {
+        Document document = new Document();
+        PdfCopy copy = new PdfCopy(document, out);
+        document.open();
+
+        for (Path part : parts) {
+            PdfReader reader = new PdfReader(part.toString());
+            try {
+                for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                    copy.addPage(copy.getImportedPage(reader, page));
+                }
+                copy.freeReader(reader);
+            } finally {
+                reader.close();
+            }
+        }
+
+        document.close();
+    }
+
+    private static void writeZip(ExportJob job, Path[] parts, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+
+        for (int i = 0; i < parts.length; i++) {
+            Customer customer = job.customers.get(i);
+            String safeName = customer.getName() != null
+                    ? customer.getName().replaceAll("[^a-zA-Z0-9]+", "-")
+                    : "cliente";
+            zip.putNextEntry(new ZipEntry(String.format("%03d-%s-%d.pdf", i + 1, safeName, customer.getId())));
+            Files.copy(parts[i], zip);
+            zip.closeEntry();
+        }
+
+        zip.finish();
+    }
+
+    private static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el directorio temporal {}", directory, e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class ExportJob {
+        private final String id;
+        private final String label;
+        private final ReportExportFormat format;
+        private final List<Customer> customers;
+        private final Path directory;
+        private final Instant createdAt = Instant.now();
+        private final AtomicInteger completed = new AtomicInteger();
+        private volatile ReportExportStatus.State state = ReportExportStatus.State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Path result;
+        private volatile String error;
+
+        private ExportJob(String id, String label, ReportExportFormat format, List<Customer> customers, Path directory) {
+            this.id = id;
+            this.label = label;
+            this.format = format;
+            this.customers = customers;
+            this.directory = directory;
+        }
+
+        private double reportsPerSecond() {
+            if (startedAt == null) {
+                return 0d;
+            }
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long millis = Math.max(Duration.between(startedAt, end).toMillis(), 1L);
+            return completed.get() * 1000d / millis;
+        }
+
+        private ReportExportStatus snapshot() {
+            return new ReportExportStatus(id, state, format, label, customers.size(), completed.get(),
+                    reportsPerSecond(), createdAt, finishedAt, error);
+        }
+    }
+}
@@ -1,15 +1,14 @@
 package cl.casero.migration.service;
 
 import cl.casero.migration.domain.Customer;
-import cl.casero.migration.domain.Transaction;
 import cl.casero.migration.domain.enums.TransactionType;
+import cl.casero.migration.repository.TransactionRepository;
 import cl.casero.migration.util.CurrencyUtil;
 import cl.casero.migration.util.TransactionTypeUtil;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Element;
 import com.lowagie.text.Font;
-import com.lowagie.text.FontFactory;
 import com.lowagie.text.HeaderFooter;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.Paragraph;
@@ -17,130 +16,141 @@ import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPCell;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
+import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.stream.Stream;
 
 @Service
+@AllArgsConstructor
 public class CustomerReportService {
 
     private static final Locale LOCALE_CL = new Locale("es", "CL");
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy", LOCALE_CL);
     private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm", LOCALE_CL);
     private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
-
-    public byte[] generateTransactionsReport(
+    private static final int TABLE_CHUNK_ROWS = 200;
+
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Writes the transactions report straight to {@code out}. Rows are read from a
+     * database cursor and the detail table is flushed to the document every
+     * {@link #TABLE_CHUNK_ROWS} rows, so memory use does not grow with the history size.
+     * The read-only transaction and its connection stay open until the document is
+     * complete, so {@code out} should be local storage rather than a client socket.
+     */
+    @Transactional(readOnly = true)
+    public void writeTransactionsReport(
         Customer customer,
-        List<Transaction> transactions,
+        LocalDate fromDate,
         String rangeLabel,
-        TransactionType filterType
+        TransactionType filterType,
+        OutputStream out
     ) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long transactionCount = transactionRepository.countReportRows(customer.getId(), fromDate, filterType);
+
+        CustomerReportStyles styles = CustomerReportStyles.forReport();
+
         try {
             Document document = new Document(PageSize.A4, 36, 36, 54, 36);
             PdfWriter.getInstance(document, out);
 
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16);
-            Font sectionFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 10);
-            Font smallFont = FontFactory.getFont(FontFactory.HELVETICA, 9);
-
-            HeaderFooter header = new HeaderFooter(new Phrase("Generado el " + LocalDateTime.now(DEFAULT_ZONE).format(TIMESTAMP_FORMAT), smallFont), false);
+            HeaderFooter header = new HeaderFooter(new Phrase("Generado el " + LocalDateTime.now(DEFAULT_ZONE).format(TIMESTAMP_FORMAT), styles.smallFont), false);
             header.setAlignment(Element.ALIGN_RIGHT);
             header.setBorderWidthBottom(0);
             document.setHeader(header);
             document.open();
 
-            Paragraph title = new Paragraph("Transacciones", titleFont);
+            Paragraph title = new Paragraph("Transacciones", styles.titleFont);
             title.setAlignment(Element.ALIGN_CENTER);
             title.setSpacingAfter(18f);
             document.add(title);
-            document.add(buildCustomerSummaryTable(customer, normalFont));
-            document.add(new Paragraph(" ", normalFont));
+            document.add(buildCustomerSummaryTable(styles, customer));
+            document.add(new Paragraph(" ", styles.normalFont));
 
-            PdfPTable rangeTable = buildRangeSummaryTable(rangeLabel, filterType, transactions.size(), normalFont);
+            PdfPTable rangeTable = buildRangeSummaryTable(styles, rangeLabel, filterType, transactionCount);
             rangeTable.setSpacingAfter(10f);
             document.add(rangeTable);
 
-            if (transactions.isEmpty()) {
-                Paragraph empty = new Paragraph("No hay transacciones registradas para este rango.", normalFont);
+            if (transactionCount == 0) {
+                Paragraph empty = new Paragraph("No hay transacciones registradas para este rango.", styles.normalFont);
                 empty.setSpacingBefore(10f);
                 document.add(empty);
             } else {
-                Paragraph detailTitle = new Paragraph("Detalle de transacciones", sectionFont);
+                Paragraph detailTitle = new Paragraph("Detalle de transacciones", styles.sectionFont);
                 detailTitle.setSpacingBefore(12f);
                 detailTitle.setSpacingAfter(6f);
                 document.add(detailTitle);
-                PdfPTable table = buildTransactionsTable(transactions, normalFont);
-                table.setSpacingBefore(4f);
-                document.add(table);
+
+                try (Stream<TransactionRepository.ReportRowView> rows =
+                        transactionRepository.streamReportRows(customer.getId(), fromDate, filterType)) {
+                    writeTransactionsTable(styles, document, rows);
+                }
             }
 
             document.close();
-            return out.toByteArray();
         } catch (DocumentException e) {
             throw new IllegalStateException("No se pudo generar el informe en PDF", e);
         }
     }
 
     private static PdfPTable buildRangeSummaryTable(
+        CustomerReportStyles styles,
         String rangeLabel,
         TransactionType filterType,
-        int transactionCount,
-        Font font
+        long transactionCount
     ) {
         PdfPTable table = new PdfPTable(new float[]{2.5f, 4.5f});
         table.setWidthPercentage(100f);
-        addSummaryRow(table, "Rango seleccionado", normalizeText(rangeLabel, "Personalizado"), font, false);
+        addSummaryRow(styles, table, "Rango seleccionado", normalizeText(rangeLabel, "Personalizado"), false);
         String typeLabel = filterType == null ? "Todos los tipos" : TransactionTypeUtil.label(filterType);
-        addSummaryRow(table, "Tipo seleccionado", typeLabel, font, false);
-        addSummaryRow(table, "Movimientos incluidos", String.valueOf(transactionCount), font, false);
+        addSummaryRow(styles, table, "Tipo seleccionado", typeLabel, false);
+        addSummaryRow(styles, table, "Movimientos incluidos", String.valueOf(transactionCount), false);
         return table;
     }
 
-    private static PdfPTable buildCustomerSummaryTable(Customer customer, Font font) {
+    private static PdfPTable buildCustomerSummaryTable(CustomerReportStyles styles, Customer customer) {
         PdfPTable table = new PdfPTable(new float[]{2.5f, 4.5f});
 
         table.setWidthPercentage(100f);
         table.setSpacingAfter(8f);
 
-        addSummaryRow(table, "Nombre", safe(customer.getName()), font, false);
-        addSummaryRow(table, "Dirección", safe(customer.getAddress()), font, false);
+        addSummaryRow(styles, table, "Nombre", safe(customer.getName()), false);
+        addSummaryRow(styles, table, "Dirección", safe(customer.getAddress()), false);
 
         String sectorName = customer.getSector() != null ? safe(customer.getSector().getName()) : "No asignado";
 
-        addSummaryRow(table, "Sector", sectorName, font, false);
-        addSummaryRow(table, "Deuda actual", formatCurrency(customer.getDebt()), font, true);
+        addSummaryRow(styles, table, "Sector", sectorName, false);
+        addSummaryRow(styles, table, "Deuda actual", formatCurrency(customer.getDebt()), true);
 
         return table;
     }
 
     private static void addSummaryRow(
+        CustomerReportStyles styles,
         PdfPTable table,
         String label,
         String value,
-        Font font,
         boolean highlightValue
     ) {
-        Font labelFont = new Font(font);
-        labelFont.setStyle(Font.BOLD);
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorderColor(new Color(230, 230, 230));
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, styles.boldFont));
+        labelCell.setBorderColor(CustomerReportStyles.SUMMARY_BORDER);
         labelCell.setPadding(6f);
-        labelCell.setBackgroundColor(new Color(247, 249, 253));
+        labelCell.setBackgroundColor(CustomerReportStyles.SUMMARY_LABEL_BACKGROUND);
         table.addCell(labelCell);
 
-        Font valueFont = highlightValue
-                ? FontFactory.getFont(FontFactory.HELVETICA_BOLD, 11, new Color(198, 40, 40))
-                : font;
+        Font valueFont = highlightValue ? styles.highlightValueFont : styles.normalFont;
         PdfPCell valueCell = new PdfPCell(new Phrase(normalizeText(value, "—"), valueFont));
-        valueCell.setBorderColor(new Color(230, 230, 230));
+        valueCell.setBorderColor(CustomerReportStyles.SUMMARY_BORDER);
         valueCell.setPadding(6f);
         table.addCell(valueCell);
     }
@@ -149,58 +159,66 @@ public class CustomerReportService {
         return text == null || text.isBlank() ? fallback : text;
     }
 
-    private static PdfPTable buildTransactionsTable(List<Transaction> transactions, Font font) {
+    private static void writeTransactionsTable(
+        CustomerReportStyles styles,
+        Document document,
+        Stream<TransactionRepository.ReportRowView> rows
+    ) throws DocumentException {
         PdfPTable table = new PdfPTable(new float[]{1.3f, 1.1f, 2.6f, 1.1f, 1.1f});
         table.setWidthPercentage(100f);
-        Font headerFont = new Font(font);
-        headerFont.setStyle(Font.BOLD);
-
-        addHeaderCell(table, "Fecha", headerFont);
-        addHeaderCell(table, "Tipo", headerFont);
-        addHeaderCell(table, "Detalle", headerFont);
-        addHeaderCell(table, "Monto", headerFont);
-        addHeaderCell(table, "Saldo", headerFont);
-
-        for (Transaction transaction : transactions) {
-            boolean isSale = transaction.getType() == TransactionType.SALE;
-            table.addCell(buildCell(transaction.getDate() != null
-                    ? transaction.getDate().format(DATE_FORMAT)
-                    : "—", font, isSale));
-            table.addCell(buildCell(formatType(transaction.getType()), font, isSale));
-            table.addCell(buildCell(safe(transaction.getDetail()), font, isSale));
-            table.addCell(buildCell(formatAmount(transaction), font, isSale));
-            table.addCell(buildCell(formatCurrency(transaction.getBalance()), font, isSale));
+        table.setSpacingBefore(4f);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
+        addHeaderCell(styles, table, "Fecha");
+        addHeaderCell(styles, table, "Tipo");
+        addHeaderCell(styles, table, "Detalle");
+        addHeaderCell(styles, table, "Monto");
+        addHeaderCell(styles, table, "Saldo");
+
+        int pendingRows = 0;
+        Iterator<TransactionRepository.ReportRowView> iterator = rows.iterator();
+
+        while (iterator.hasNext()) {
+            TransactionRepository.ReportRowView row = iterator.next();
+            boolean isSale = row.getType() == TransactionType.SALE;
+            table.addCell(buildCell(styles, row.getDate() != null
+                    ? row.getDate().format(DATE_FORMAT)
+                    : "—", isSale));
+            table.addCell(buildCell(styles, formatType(row.getType()), isSale));
+            table.addCell(buildCell(styles, safe(row.getDetail()), isSale));
+            table.addCell(buildCell(styles, formatAmount(row.getType(), row.getAmount()), isSale));
+            table.addCell(buildCell(styles, formatCurrency(row.getBalance()), isSale));
+
+            if (++pendingRows == TABLE_CHUNK_ROWS) {
+                document.add(table);
+                pendingRows = 0;
+            }
         }
 
-        return table;
+        table.setComplete(true);
+        document.add(table);
     }
 
-    private static void addHeaderCell(PdfPTable table, String text, Font font) {
-        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+    private static void addHeaderCell(CustomerReportStyles styles, PdfPTable table, String text) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, styles.boldFont));
         cell.setHorizontalAlignment(Element.ALIGN_LEFT);
         cell.setPadding(6f);
-        cell.setBackgroundColor(new Color(235, 241, 251));
+        cell.setBackgroundColor(CustomerReportStyles.HEADER_BACKGROUND);
         table.addCell(cell);
     }
 
-    private static PdfPCell buildCell(String text, Font font, boolean highlight) {
-        Font effectiveFont = highlight ? makeBold(font) : font;
-        PdfPCell cell = new PdfPCell(new Phrase(text, effectiveFont));
+    private static PdfPCell buildCell(CustomerReportStyles styles, String text, boolean highlight) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, highlight ? styles.boldFont : styles.normalFont));
         cell.setPadding(5f);
         cell.setHorizontalAlignment(Element.ALIGN_LEFT);
         if (highlight) {
-            cell.setBackgroundColor(new Color(255, 249, 229));
-            cell.setBorderColor(new Color(255, 215, 141));
+            cell.setBackgroundColor(CustomerReportStyles.SALE_BACKGROUND);
+            cell.setBorderColor(CustomerReportStyles.SALE_BORDER);
         }
         return cell;
     }
 
-    private static Font makeBold(Font baseFont) {
-        Font bold = new Font(baseFont);
-        bold.setStyle(Font.BOLD);
-        return bold;
-    }
-
     private static String formatType(TransactionType type) {
         return TransactionTypeUtil.label(type);
     }
@@ -210,9 +228,9 @@ public class CustomerReportService {
         return CurrencyUtil.format(safeAmount);
     }
 
-    private static String formatAmount(Transaction transaction) {
-        int amount = transaction.getAmount() != null ? transaction.getAmount() : 0;
-        if (transaction.getType() != null && transaction.getType().isDebtDecreaser()) {
+    private static String formatAmount(TransactionType type, Integer rawAmount) {
+        int amount = rawAmount != null ? rawAmount : 0;
+        if (type != null && type.isDebtDecreaser()) {
             amount = -Math.abs(amount);
         }
         return CurrencyUtil.format(amount);
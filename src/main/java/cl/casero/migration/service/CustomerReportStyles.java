@@ -0,0 +1,50 @@
+package cl.casero.migration.service;
+
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.pdf.BaseFont;
+
+import java.awt.Color;
+import java.io.IOException;
+
+/**
+ * Fonts and colors of one customer report. OpenPDF fonts are mutable, so every render
+ * builds its own set with {@link #forReport()} instead of sharing {@link Font} instances
+ * between threads. The font programs ({@link BaseFont}) and the {@link Color} values are
+ * read-only and loaded once for all reports, so a render only allocates these few fonts
+ * rather than one per cell.
+ */
+final class CustomerReportStyles {
+
+    private static final BaseFont HELVETICA = loadBaseFont(BaseFont.HELVETICA);
+    private static final BaseFont HELVETICA_BOLD = loadBaseFont(BaseFont.HELVETICA_BOLD);
+
+    static final Color HIGHLIGHT_VALUE_COLOR = new Color(198, 40, 40);
+    static final Color SUMMARY_BORDER = new Color(230, 230, 230);
+    static final Color SUMMARY_LABEL_BACKGROUND = new Color(247, 249, 253);
+    static final Color HEADER_BACKGROUND = new Color(235, 241, 251);
+    static final Color SALE_BACKGROUND = new Color(255, 249, 229);
+    static final Color SALE_BORDER = new Color(255, 215, 141);
+
+    final Font titleFont = new Font(HELVETICA_BOLD, 16);
+    final Font sectionFont = new Font(HELVETICA_BOLD, 12);
+    final Font normalFont = new Font(HELVETICA, 10);
+    final Font boldFont = new Font(HELVETICA, 10, Font.BOLD);
+    final Font smallFont = new Font(HELVETICA, 9);
+    final Font highlightValueFont = new Font(HELVETICA_BOLD, 11, Font.NORMAL, HIGHLIGHT_VALUE_COLOR);
+
+    private CustomerReportStyles() {
+    }
+
+    static CustomerReportStyles forReport() {
+        return new CustomerReportStyles();
+    }
+
+    private static BaseFont loadBaseFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("No se pudo cargar la fuente " + name, e);
+        }
+    }
+}
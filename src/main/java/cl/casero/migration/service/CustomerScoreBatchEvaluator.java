@@ -0,0 +1,244 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.repository.TransactionRepository;
+import cl.casero.migration.util.CustomerScoreCalculator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores whole populations of customers for the ranking and the nightly refresh. Cycle
+ * statistics are copied into primitive columns, customers are split across a dedicated
+ * {@link ForkJoinPool} and every task writes only its own slice of the result arrays, so
+ * partitions never contend. The scores match {@link CustomerScoreService#calculateScores}.
+ */
+@Component
+public class CustomerScoreBatchEvaluator {
+
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int SEQUENTIAL_THRESHOLD = 512;
+
+    private final CustomerCycleStatsLoader customerCycleStatsLoader;
+    private final boolean parallel;
+    private final ForkJoinPool pool;
+    private final Timer sequentialTimer;
+    private final Timer parallelTimer;
+
+    public CustomerScoreBatchEvaluator(
+        CustomerCycleStatsLoader customerCycleStatsLoader,
+        MeterRegistry meterRegistry,
+        @Value("${customer.score.parallel.enabled:true}") boolean parallel,
+        @Value("${customer.score.parallel.threads:0}") int threads
+    ) {
+        this.customerCycleStatsLoader = customerCycleStatsLoader;
+        this.parallel = parallel;
+        this.pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        this.sequentialTimer = Timer.builder("casero.customer.score.evaluate")
+                .description("Time spent scoring one batch of customers from their cycle statistics")
+                .tag("mode", "sequential")
+                .register(meterRegistry);
+        this.parallelTimer = Timer.builder("casero.customer.score.evaluate")
+                .description("Time spent scoring one batch of customers from their cycle statistics")
+                .tag("mode", "parallel")
+                .register(meterRegistry);
+    }
+
+    public BatchScores evaluate(List<Customer> customers) {
+        if (customers == null || customers.isEmpty()) {
+            return new BatchScores(List.of(), new double[0], new int[0]);
+        }
+
+        List<Customer> scored = customers.stream()
+                .filter(customer -> customer != null && customer.getId() != null)
+                .toList();
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats =
+                customerCycleStatsLoader.load(scored.stream().map(Customer::getId).toList());
+        CycleColumns columns = CycleColumns.of(scored, stats);
+        double[] scores = new double[scored.size()];
+        int[] cycleCounts = new int[scored.size()];
+        EvaluateTask task = new EvaluateTask(columns, scores, cycleCounts, 0, scored.size());
+
+        if (parallel && scored.size() > SEQUENTIAL_THRESHOLD) {
+            parallelTimer.record(() -> pool.invoke(task));
+        } else {
+            sequentialTimer.record(task::evaluateRange);
+        }
+
+        return new BatchScores(scored, scores, cycleCounts);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Scores aligned by index with {@code customers}; customers without an id are left out.
+     */
+    public record BatchScores(List<Customer> customers, double[] scores, int[] cycleCounts) {
+    }
+
+    private static final class EvaluateTask extends RecursiveAction {
+        private final CycleColumns columns;
+        private final double[] scores;
+        private final int[] cycleCounts;
+        private final int from;
+        private final int to;
+
+        private EvaluateTask(CycleColumns columns, double[] scores, int[] cycleCounts, int from, int to) {
+            this.columns = columns;
+            this.scores = scores;
+            this.cycleCounts = cycleCounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                evaluateRange();
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new EvaluateTask(columns, scores, cycleCounts, from, middle),
+                    new EvaluateTask(columns, scores, cycleCounts, middle, to));
+        }
+
+        private void evaluateRange() {
+            double withDebtFallback = fallbackScore(true);
+            double withoutDebtFallback = fallbackScore(false);
+
+            for (int customer = from; customer < to; customer++) {
+                int firstCycle = columns.firstCycle[customer];
+                int lastCycle = columns.firstCycle[customer + 1];
+                cycleCounts[customer] = lastCycle - firstCycle;
+
+                if (firstCycle == lastCycle) {
+                    scores[customer] = columns.customerHasDebt[customer] ? withDebtFallback : withoutDebtFallback;
+                    continue;
+                }
+
+                DoubleSummaryStatistics stats = new DoubleSummaryStatistics();
+                for (int cycle = firstCycle; cycle < lastCycle; cycle++) {
+                    stats.accept(CustomerScoreCalculator.evaluate(columns.inputs(cycle)).score());
+                }
+                scores[customer] = Math.round(stats.getAverage() * 100.0) / 100.0;
+            }
+        }
+
+        private static double fallbackScore(boolean hasOutstandingDebt) {
+            return CustomerScoreCalculator.evaluate(new CustomerScoreCalculator.ScoreInputs(
+                    0, null, null, null, null, null, null, null, hasOutstandingDebt)).score();
+        }
+    }
+
+    private static final class CycleColumns {
+        private final boolean[] customerHasDebt;
+        private final int[] firstCycle;
+        private final int[] totalPayments;
+        private final long[] lastPaymentDay;
+        private final int[] maxInterval;
+        private final long[] totalIntervalDays;
+        private final int[] intervalCount;
+        private final int[] lateIntervalCount;
+        private final long[] paymentMonthCount;
+        private final int[] cycleMonthCount;
+        private final boolean[] outstandingDebt;
+
+        private CycleColumns(int customers, int cycles) {
+            customerHasDebt = new boolean[customers];
+            firstCycle = new int[customers + 1];
+            totalPayments = new int[cycles];
+            lastPaymentDay = new long[cycles];
+            maxInterval = new int[cycles];
+            totalIntervalDays = new long[cycles];
+            intervalCount = new int[cycles];
+            lateIntervalCount = new int[cycles];
+            paymentMonthCount = new long[cycles];
+            cycleMonthCount = new int[cycles];
+            outstandingDebt = new boolean[cycles];
+        }
+
+        private static CycleColumns of(
+            List<Customer> customers,
+            Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats
+        ) {
+            int cycles = 0;
+            for (Customer customer : customers) {
+                cycles += stats.getOrDefault(customer.getId(), Collections.emptyList()).size();
+            }
+
+            CycleColumns columns = new CycleColumns(customers.size(), cycles);
+            int cycle = 0;
+
+            for (int index = 0; index < customers.size(); index++) {
+                Customer customer = customers.get(index);
+                columns.customerHasDebt[index] = customer.getDebt() != null && customer.getDebt() > 0;
+                columns.firstCycle[index] = cycle;
+
+                for (TransactionRepository.CustomerCycleProjection projection
+                        : stats.getOrDefault(customer.getId(), Collections.emptyList())) {
+                    columns.totalPayments[cycle] = projection.getTotalPayments() != null ? projection.getTotalPayments() : 0;
+                    columns.lastPaymentDay[cycle] = projection.getLastPaymentDate() != null
+                            ? projection.getLastPaymentDate().toEpochDay()
+                            : NULL_LONG;
+                    columns.maxInterval[cycle] = orNull(projection.getMaxIntervalBetweenPayments());
+                    columns.totalIntervalDays[cycle] = orNull(projection.getTotalIntervalDays());
+                    columns.intervalCount[cycle] = orNull(projection.getIntervalCount());
+                    columns.lateIntervalCount[cycle] = orNull(projection.getLateIntervalCount());
+                    columns.paymentMonthCount[cycle] = orNull(projection.getPaymentMonthCount());
+                    columns.cycleMonthCount[cycle] = orNull(projection.getCycleMonthCount());
+                    columns.outstandingDebt[cycle] = Boolean.TRUE.equals(projection.getHasOutstandingDebt());
+                    cycle++;
+                }
+            }
+            columns.firstCycle[customers.size()] = cycle;
+
+            return columns;
+        }
+
+        private CustomerScoreCalculator.ScoreInputs inputs(int cycle) {
+            return new CustomerScoreCalculator.ScoreInputs(
+                    totalPayments[cycle],
+                    lastPaymentDay[cycle] != NULL_LONG ? LocalDate.ofEpochDay(lastPaymentDay[cycle]) : null,
+                    boxed(maxInterval[cycle]),
+                    boxed(totalIntervalDays[cycle]),
+                    boxed(intervalCount[cycle]),
+                    boxed(lateIntervalCount[cycle]),
+                    boxed(paymentMonthCount[cycle]),
+                    boxed(cycleMonthCount[cycle]),
+                    outstandingDebt[cycle]);
+        }
+
+        private static int orNull(Integer value) {
+            return value != null ? value : NULL_INT;
+        }
+
+        private static long orNull(Long value) {
+            return value != null ? value : NULL_LONG;
+        }
+
+        private static Integer boxed(int value) {
+            return value != NULL_INT ? value : null;
+        }
+
+        private static Long boxed(long value) {
+            return value != NULL_LONG ? value : null;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package cl.casero.migration.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Keeps the scores shown on the customer list pages. An entry is only reused while the
+ * customer's ledger version matches and never outlives the current day in Santiago,
+ * because the score decays with the days elapsed since the last payment.
+ */
+@Component
+public class CustomerScoreCache {
+
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
+
+    private final Cache<Long, CachedScore> cache;
+
+    public CustomerScoreCache(
+        MeterRegistry meterRegistry,
+        @Value("${customer.score.cache.max-size:20000}") long maxSize
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilMidnight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customer.score");
+    }
+
+    public Double get(Long customerId, LedgerVersion version) {
+        CachedScore cached = cache.getIfPresent(customerId);
+
+        if (cached == null) {
+            return null;
+        }
+
+        if (!cached.version().equals(version) || !cached.day().equals(LocalDate.now(DEFAULT_ZONE))) {
+            cache.invalidate(customerId);
+            return null;
+        }
+
+        return cached.score();
+    }
+
+    public void put(Long customerId, LedgerVersion version, double score) {
+        cache.put(customerId, new CachedScore(version, LocalDate.now(DEFAULT_ZONE), score));
+    }
+
+    /**
+     * Drops the customer's entry now and again once the surrounding transaction commits,
+     * so a list page rendered in between cannot keep the pre-write score.
+     */
+    public void invalidate(Long customerId) {
+        if (customerId == null) {
+            return;
+        }
+
+        cache.invalidate(customerId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(customerId);
+                }
+            });
+        }
+    }
+
+    public record LedgerVersion(long transactionCount, long lastTransactionId, Integer debt) {
+    }
+
+    private record CachedScore(LedgerVersion version, LocalDate day, double score) {
+    }
+
+    private static final class UntilMidnight implements Expiry<Long, CachedScore> {
+
+        @Override
+        public long expireAfterCreate(Long key, CachedScore value, long currentTime) {
+            ZonedDateTime now = ZonedDateTime.now(DEFAULT_ZONE);
+            ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(DEFAULT_ZONE);
+            return Math.max(Duration.between(now, midnight).toNanos(), 1L);
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, CachedScore value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, CachedScore value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cl.casero.migration.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class CustomerScoreRefreshJob {
+
+    private final CustomerScoreService customerScoreService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingScores() {
+        try {
+            customerScoreService.refreshMissingScores();
+        } catch (Exception ex) {
+            log.warn("No se pudieron completar los puntajes faltantes: {}", ex.getMessage());
+        }
+    }
+
+    // Customers inserted by restores or imports skip the write-time scoring; the ranking
+    // only reads stored rows, so they are scored here instead.
+    @Scheduled(fixedDelayString = "${customer.score.backfill-interval:PT5M}",
+            initialDelayString = "${customer.score.backfill-interval:PT5M}")
+    public void refreshMissingScores() {
+        try {
+            customerScoreService.refreshMissingScores();
+        } catch (Exception ex) {
+            log.warn("No se pudieron completar los puntajes faltantes: {}", ex.getMessage());
+        }
+    }
+
+    // Scores decay with the days since the last payment, so they are recomputed once the day changes.
+    @Scheduled(cron = "${customer.score.refresh.cron:0 5 0 * * *}", zone = "America/Santiago")
+    public void refreshAllScores() {
+        try {
+            customerScoreService.refreshAllScores();
+        } catch (Exception ex) {
+            log.warn("No se pudieron recalcular los puntajes de clientes: {}", ex.getMessage());
+        }
+    }
+}
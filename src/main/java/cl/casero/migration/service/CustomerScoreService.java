@@ -1,7 +1,9 @@
 package cl.casero.migration.service;
 
 import cl.casero.migration.domain.Customer;
+import cl.casero.migration.domain.CustomerScore;
 import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.repository.CustomerScoreRepository;
 import cl.casero.migration.repository.TransactionRepository;
 import cl.casero.migration.util.CustomerScoreCalculator;
 import cl.casero.migration.util.CustomerScoreNarrator;
@@ -15,7 +17,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -31,7 +36,15 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 public class CustomerScoreService {
 
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
+    private static final int REFRESH_CHUNK_SIZE = 500;
+    private static final int EVALUATION_CHUNK_SIZE = 20000;
+
     private final CustomerRepository customerRepository;
+    private final CustomerScoreRepository customerScoreRepository;
+    private final CustomerCycleStatsLoader customerCycleStatsLoader;
+    private final CustomerScoreBatchEvaluator customerScoreBatchEvaluator;
+    private final CustomerScoreCache customerScoreCache;
     private final TransactionRepository transactionRepository;
 
     public Map<Long, CustomerScoreSummary> calculateScoreSummaries(Collection<Customer> customers) {
@@ -48,7 +61,7 @@ public class CustomerScoreService {
             return Collections.emptyMap();
         }
 
-        Map<Long, List<TransactionRepository.CustomerCycleProjection>> cycleStats = fetchCycleStats(ids);
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> cycleStats = customerCycleStatsLoader.load(ids);
         Map<Long, CustomerScoreSummary> summaries = new HashMap<>();
 
         for (Customer customer : customers) {
@@ -72,10 +85,70 @@ public class CustomerScoreService {
     }
 
     public Map<Long, Double> calculateScores(Collection<Customer> customers) {
-        return calculateScoreSummaries(customers)
-                .entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().score()));
+        if (customers == null || customers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, CustomerScoreCache.LedgerVersion> versions = fetchLedgerVersions(customers);
+        Map<Long, Double> scores = new HashMap<>();
+        List<Customer> misses = new ArrayList<>();
+
+        for (Map.Entry<Long, CustomerScoreCache.LedgerVersion> entry : versions.entrySet()) {
+            Double cached = customerScoreCache.get(entry.getKey(), entry.getValue());
+
+            if (cached != null) {
+                scores.put(entry.getKey(), cached);
+            }
+        }
+
+        for (Customer customer : customers) {
+            if (customer != null && customer.getId() != null && !scores.containsKey(customer.getId())) {
+                misses.add(customer);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return scores;
+        }
+
+        for (Map.Entry<Long, CustomerScoreSummary> entry : calculateScoreSummaries(misses).entrySet()) {
+            double score = entry.getValue().score();
+            customerScoreCache.put(entry.getKey(), versions.get(entry.getKey()), score);
+            scores.put(entry.getKey(), score);
+        }
+
+        return scores;
+    }
+
+    private Map<Long, CustomerScoreCache.LedgerVersion> fetchLedgerVersions(Collection<Customer> customers) {
+        Map<Long, Customer> byId = new HashMap<>();
+
+        for (Customer customer : customers) {
+            if (customer != null && customer.getId() != null) {
+                byId.put(customer.getId(), customer);
+            }
+        }
+
+        if (byId.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, TransactionRepository.LedgerVersionView> rows = new HashMap<>();
+        for (TransactionRepository.LedgerVersionView row
+                : transactionRepository.findLedgerVersions(byId.keySet().toArray(Long[]::new))) {
+            rows.put(row.getCustomerId(), row);
+        }
+
+        Map<Long, CustomerScoreCache.LedgerVersion> versions = new HashMap<>();
+        for (Customer customer : byId.values()) {
+            TransactionRepository.LedgerVersionView row = rows.get(customer.getId());
+            versions.put(customer.getId(), new CustomerScoreCache.LedgerVersion(
+                    row != null && row.getTransactionCount() != null ? row.getTransactionCount() : 0L,
+                    row != null && row.getLastTransactionId() != null ? row.getLastTransactionId() : 0L,
+                    customer.getDebt()));
+        }
+
+        return versions;
     }
 
     public double calculateScore(Customer customer) {
@@ -106,68 +179,118 @@ public class CustomerScoreService {
         return new ScorePresentation(summary.score(), explanation, summary.cycles());
     }
 
+    /**
+     * Reads the stored scores only. Rows are written when a customer or a movement is saved,
+     * and {@link CustomerScoreRefreshJob} fills in any customer created outside the app.
+     */
+    @Transactional(readOnly = true)
     public Page<RankingEntry> getRanking(Pageable pageable, boolean ascending) {
         Pageable effectivePageable = pageable == null ? PageRequest.of(0, 20) : pageable;
-        List<Customer> customers = customerRepository.findAllByEnabledTrue();
+        Page<CustomerScoreRepository.RankingView> rankingPage = fetchRankingPage(effectivePageable, ascending);
 
-        if (customers.isEmpty()) {
+        if (rankingPage.getTotalElements() == 0) {
             return new PageImpl<>(Collections.emptyList(), effectivePageable, 0);
         }
 
-        Map<Long, CustomerScoreSummary> summaries = calculateScoreSummaries(customers);
-        List<RankingEntry> ranking = customers.stream()
-                .map(customer -> {
-                    CustomerScoreSummary summary = summaries.get(customer.getId());
-                    if (summary == null) {
-                        summary = new CustomerScoreSummary(CustomerScoreCalculator.minScore(), Collections.emptyList());
-                    }
-                    String explanation = CustomerScoreNarrator.buildExplanation(summary);
-                    return new RankingEntry(
-                            customer.getId(),
-                            customer.getName(),
-                            customer.getDebt(),
-                            summary.score(),
-                            explanation,
-                            summary.cycles().size());
-                })
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        ranking.sort((a, b) -> {
-            int scoreCompare = ascending
-                    ? a.score.compareTo(b.score)
-                    : b.score.compareTo(a.score);
-            if (scoreCompare != 0) {
-                return scoreCompare;
-            }
-            int cycleCompare = Integer.compare(b.cycleCount, a.cycleCount);
-            if (cycleCompare != 0) {
-                return cycleCompare;
-            }
-            String nameA = a.name == null ? "" : a.name;
-            String nameB = b.name == null ? "" : b.name;
-            return String.CASE_INSENSITIVE_ORDER.compare(nameA, nameB);
+        if (rankingPage.getContent().isEmpty()) {
+            int pageSize = effectivePageable.getPageSize();
+            int lastPage = Math.max((int) Math.ceil((double) rankingPage.getTotalElements() / pageSize) - 1, 0);
+            Pageable lastPageable = PageRequest.of(lastPage, pageSize, effectivePageable.getSort());
+            rankingPage = fetchRankingPage(lastPageable, ascending);
+        }
+
+        List<Long> pageIds = rankingPage.getContent()
+                .stream()
+                .map(CustomerScoreRepository.RankingView::getId)
+                .toList();
+        Map<Long, CustomerScoreSummary> summaries = calculateScoreSummaries(customerRepository.findAllById(pageIds));
+
+        return rankingPage.map(view -> {
+            CustomerScoreSummary summary = summaries.get(view.getId());
+            String explanation = summary != null ? CustomerScoreNarrator.buildExplanation(summary) : null;
+            return new RankingEntry(
+                    view.getId(),
+                    view.getName(),
+                    view.getDebt(),
+                    view.getScore(),
+                    explanation,
+                    view.getCycleCount() != null ? view.getCycleCount() : 0);
         });
+    }
+
+    @Transactional
+    public void refreshScore(Customer customer) {
+        if (customer == null) {
+            return;
+        }
 
-        int total = ranking.size();
-        int start = (int) effectivePageable.getOffset();
-        int pageSize = effectivePageable.getPageSize();
+        refreshScores(List.of(customer));
+    }
+
+    @Transactional
+    public void refreshScores(Collection<Customer> customers) {
+        Map<Long, CustomerScoreSummary> summaries = calculateScoreSummaries(customers);
 
-        if (pageSize <= 0) {
-            pageSize = 20;
+        if (summaries.isEmpty()) {
+            return;
         }
 
-        if (start >= total) {
-            int lastPage = Math.max((int) Math.ceil((double) total / pageSize) - 1, 0);
-            int newStart = lastPage * pageSize;
-            int newEnd = Math.min(newStart + pageSize, total);
-            Pageable lastPageable = PageRequest.of(lastPage, pageSize, effectivePageable.getSort());
-            return new PageImpl<>(ranking.subList(newStart, newEnd), lastPageable, total);
+        OffsetDateTime now = OffsetDateTime.now(DEFAULT_ZONE);
+        List<CustomerScore> scores = new ArrayList<>(summaries.size());
+
+        for (Map.Entry<Long, CustomerScoreSummary> entry : summaries.entrySet()) {
+            scores.add(toScore(entry.getKey(), entry.getValue().score(), entry.getValue().cycles().size(), now));
         }
 
-        int end = Math.min(start + pageSize, total);
-        List<RankingEntry> pageContent = ranking.subList(start, end);
+        customerScoreRepository.saveAll(scores);
+    }
+
+    public void refreshAllScores() {
+        refreshInChunks(customerRepository.findAllByEnabledTrue());
+    }
+
+    public void refreshMissingScores() {
+        List<Long> missingIds = customerScoreRepository.findEnabledCustomerIdsWithoutScore();
+
+        if (missingIds.isEmpty()) {
+            return;
+        }
 
-        return new PageImpl<>(pageContent, effectivePageable, total);
+        refreshInChunks(customerRepository.findAllById(missingIds));
+    }
+
+    private void refreshInChunks(List<Customer> customers) {
+        OffsetDateTime now = OffsetDateTime.now(DEFAULT_ZONE);
+
+        for (int chunkStart = 0; chunkStart < customers.size(); chunkStart += EVALUATION_CHUNK_SIZE) {
+            List<Customer> chunk = customers.subList(chunkStart, Math.min(chunkStart + EVALUATION_CHUNK_SIZE, customers.size()));
+            CustomerScoreBatchEvaluator.BatchScores batch = customerScoreBatchEvaluator.evaluate(chunk);
+            List<CustomerScore> scores = new ArrayList<>(batch.customers().size());
+
+            for (int index = 0; index < batch.customers().size(); index++) {
+                scores.add(toScore(batch.customers().get(index).getId(), batch.scores()[index], batch.cycleCounts()[index], now));
+            }
+
+            for (int start = 0; start < scores.size(); start += REFRESH_CHUNK_SIZE) {
+                customerScoreRepository.saveAll(scores.subList(start, Math.min(start + REFRESH_CHUNK_SIZE, scores.size())));
+            }
+        }
+    }
+
+    private static CustomerScore toScore(Long customerId, double value, int cycleCount, OffsetDateTime calculatedAt) {
+        CustomerScore score = new CustomerScore();
+        score.setCustomerId(customerId);
+        score.setScore(value);
+        score.setCycleCount(cycleCount);
+        score.setCalculatedAt(calculatedAt);
+        return score;
+    }
+
+    private Page<CustomerScoreRepository.RankingView> fetchRankingPage(Pageable pageable, boolean ascending) {
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return ascending
+                ? customerScoreRepository.findRankingAsc(unsorted)
+                : customerScoreRepository.findRankingDesc(unsorted);
     }
 
     @Getter
@@ -185,25 +308,6 @@ public class CustomerScoreService {
     public record ScorePresentation(double score, String explanation, List<CustomerScoreSummary.CycleScore> cycles) {
     }
 
-    private Map<Long, List<TransactionRepository.CustomerCycleProjection>> fetchCycleStats(Set<Long> ids) {
-        if (ids == null || ids.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<TransactionRepository.CustomerCycleProjection> stats = transactionRepository.findCustomerCycleStats(List.copyOf(ids));
-        Map<Long, List<TransactionRepository.CustomerCycleProjection>> grouped = new HashMap<>();
-
-        for (TransactionRepository.CustomerCycleProjection projection : stats) {
-            if (projection.getCustomerId() == null) {
-                continue;
-            }
-
-            grouped.computeIfAbsent(projection.getCustomerId(), unused -> new ArrayList<>()).add(projection);
-        }
-
-        return grouped;
-    }
-
     private CustomerScoreSummary buildSummary(
         Customer customer,
         List<TransactionRepository.CustomerCycleProjection> cycleProjections
@@ -0,0 +1,556 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram index over enabled customers' name, address and sector. Local writes
+ * are applied after commit; changes made through other instances, or through sector
+ * renames, are picked up by polling {@code customer_search_version} and rebuilding. The
+ * triggers behind that version are installed when the index starts, so they cost nothing
+ * while the index is disabled.
+ *
+ * <p>Results are ordered like {@code CustomerRepository.search}: by pg_trgm similarity to
+ * the customer's name and address, then by name.
+ */
+@Slf4j
+@Component
+public class CustomerSearchIndex {
+
+    private static final int GRAM_SIZE = 3;
+    private static final double FUZZY_MIN_OVERLAP = 0.6;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final CustomerRepository customerRepository;
+    private final boolean enabled;
+    private final Timer queryTimer;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids = new long[0];
+    private String[] names = new String[0];
+    private String[] texts = new String[0];
+    private BitSet live = new BitSet();
+    private int slotCount;
+    private int liveCount;
+    private Map<Long, Integer> slotById = new HashMap<>();
+    private Map<String, Postings> postings = new HashMap<>();
+    private volatile boolean ready;
+    private volatile long indexedVersion = -1;
+    private boolean rebuilding;
+    private final List<PendingUpdate> pendingUpdates = new ArrayList<>();
+
+    public CustomerSearchIndex(
+        CustomerRepository customerRepository,
+        MeterRegistry meterRegistry,
+        @Value("${customer.search.in-memory.enabled:false}") boolean enabled
+    ) {
+        this.customerRepository = customerRepository;
+        this.enabled = enabled;
+        this.queryTimer = Timer.builder("casero.customer.search.index.query")
+                .description("Latency of customer searches served from the in-memory index")
+                .register(meterRegistry);
+        Gauge.builder("casero.customer.search.index.documents", this, CustomerSearchIndex::documentCount)
+                .description("Enabled customers held in the in-memory search index")
+                .register(meterRegistry);
+        Gauge.builder("casero.customer.search.index.bytes", this, CustomerSearchIndex::estimatedBytes)
+                .description("Estimated heap used by the in-memory search index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isActive() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        customerRepository.enableSearchVersionTracking();
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        // Read the version first: anything committed after it will bump it again.
+        Long version = customerRepository.findSearchVersion();
+
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            pendingUpdates.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Customer> customers;
+        try {
+            customers = customerRepository.findAllByEnabledTrue();
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                pendingUpdates.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            reset(customers.size());
+            for (Customer customer : customers) {
+                append(customer.getId(), customer.getName(), buildText(customer));
+            }
+            // Local writes committed while the customers were loading may be missing from that read.
+            for (PendingUpdate update : pendingUpdates) {
+                apply(update);
+            }
+            pendingUpdates.clear();
+            rebuilding = false;
+            indexedVersion = version != null ? version : 0L;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Índice de búsqueda de clientes construido con {} clientes", customers.size());
+    }
+
+    @Scheduled(fixedDelayString = "${customer.search.in-memory.refresh-interval:PT30S}")
+    public synchronized void refreshIfChanged() {
+        if (!enabled) {
+            return;
+        }
+
+        Long version = customerRepository.findSearchVersion();
+
+        if (version != null && version != indexedVersion) {
+            rebuild();
+        }
+    }
+
+    public void index(Customer customer) {
+        if (!enabled || customer == null || customer.getId() == null) {
+            return;
+        }
+
+        PendingUpdate update = new PendingUpdate(customer.getId(), customer.isEnabled(), customer.getName(), buildText(customer));
+
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(update);
+                if (rebuilding) {
+                    pendingUpdates.add(update);
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public Page<Customer> search(String filter, Pageable pageable) {
+        String query = normalize(filter);
+
+        if (query.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        long[] matchedIds = queryTimer.record(() -> findMatches(query));
+        int total = matchedIds.length;
+        int start = (int) Math.min(pageable.getOffset(), total);
+        int end = Math.min(start + pageable.getPageSize(), total);
+
+        if (start >= end) {
+            return new PageImpl<>(List.of(), pageable, total);
+        }
+
+        List<Long> pageIds = Arrays.stream(matchedIds, start, end).boxed().toList();
+        Map<Long, Customer> loaded = customerRepository.findAllById(pageIds)
+                .stream()
+                .filter(Customer::isEnabled)
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        List<Customer> content = pageIds.stream()
+                .map(loaded::get)
+                .filter(Objects::nonNull)
+                .toList();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long[] findMatches(String query) {
+        lock.readLock().lock();
+        try {
+            List<Integer> matches = exactMatches(query);
+
+            if (matches.isEmpty() && query.length() >= GRAM_SIZE) {
+                matches = fuzzyMatches(query);
+            }
+
+            return rankBySimilarity(matches, query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> exactMatches(String query) {
+        List<Integer> matches = new ArrayList<>();
+
+        if (query.length() < GRAM_SIZE) {
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (texts[slot].contains(query)) {
+                    matches.add(slot);
+                }
+            }
+            return matches;
+        }
+
+        int[] candidates = null;
+        int candidateCount = 0;
+
+        for (String gram : grams(query)) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return matches;
+            }
+            if (candidates == null) {
+                candidates = Arrays.copyOf(list.slots, list.size);
+                candidateCount = list.size;
+            } else {
+                candidateCount = intersect(candidates, candidateCount, list.slots, list.size);
+            }
+            if (candidateCount == 0) {
+                return matches;
+            }
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = candidates[i];
+            if (live.get(slot) && texts[slot].contains(query)) {
+                matches.add(slot);
+            }
+        }
+
+        return matches;
+    }
+
+    /**
+     * Slots sharing at least {@link #FUZZY_MIN_OVERLAP} of the query's grams. Postings are
+     * sorted by slot, so the hits are counted by merging them instead of in a per-query
+     * array as large as the index.
+     */
+    private List<Integer> fuzzyMatches(String query) {
+        Set<String> queryGrams = grams(query);
+        int required = (int) Math.ceil(queryGrams.size() * FUZZY_MIN_OVERLAP);
+        List<Postings> lists = new ArrayList<>();
+
+        for (String gram : queryGrams) {
+            Postings list = postings.get(gram);
+            if (list != null) {
+                lists.add(list);
+            }
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        if (lists.size() < required) {
+            return matches;
+        }
+
+        int[] cursors = new int[lists.size()];
+        while (true) {
+            int slot = Integer.MAX_VALUE;
+            for (int k = 0; k < cursors.length; k++) {
+                Postings list = lists.get(k);
+                if (cursors[k] < list.size) {
+                    slot = Math.min(slot, list.slots[cursors[k]]);
+                }
+            }
+            if (slot == Integer.MAX_VALUE) {
+                return matches;
+            }
+
+            int hits = 0;
+            for (int k = 0; k < cursors.length; k++) {
+                Postings list = lists.get(k);
+                if (cursors[k] < list.size && list.slots[cursors[k]] == slot) {
+                    cursors[k]++;
+                    hits++;
+                }
+            }
+            if (hits >= required && live.get(slot)) {
+                matches.add(slot);
+            }
+        }
+    }
+
+    private long[] rankBySimilarity(List<Integer> matches, String query) {
+        Set<String> queryTrigrams = wordTrigrams(query);
+        Map<Integer, Float> similarity = new HashMap<>(matches.size() * 2);
+
+        for (int slot : matches) {
+            similarity.put(slot, similarity(queryTrigrams, wordTrigrams(searchText(texts[slot]))));
+        }
+
+        matches.sort(Comparator.comparing((Integer slot) -> similarity.get(slot)).reversed()
+                .thenComparing(slot -> names[slot], String.CASE_INSENSITIVE_ORDER));
+
+        return matches.stream().mapToLong(slot -> ids[slot]).toArray();
+    }
+
+    private static int intersect(int[] target, int targetSize, int[] other, int otherSize) {
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < targetSize && j < otherSize) {
+            if (target[i] == other[j]) {
+                target[size++] = target[i];
+                i++;
+                j++;
+            } else if (target[i] < other[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return size;
+    }
+
+    private void reset(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        ids = new long[capacity];
+        names = new String[capacity];
+        texts = new String[capacity];
+        live = new BitSet(capacity);
+        slotCount = 0;
+        liveCount = 0;
+        slotById = new HashMap<>(capacity * 2);
+        postings = new HashMap<>();
+    }
+
+    private void append(Long id, String name, String text) {
+        if (slotCount == ids.length) {
+            int capacity = Math.max(16, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+
+        int slot = slotCount++;
+        ids[slot] = id;
+        names[slot] = name == null ? "" : name;
+        texts[slot] = text;
+        live.set(slot);
+        liveCount++;
+        slotById.put(id, slot);
+
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, unused -> new Postings()).add(slot);
+        }
+    }
+
+    private void apply(PendingUpdate update) {
+        removeSlot(update.id());
+        if (update.visible()) {
+            append(update.id(), update.name(), update.text());
+        }
+    }
+
+    private void removeSlot(Long id) {
+        Integer slot = slotById.remove(id);
+
+        if (slot != null && live.get(slot)) {
+            live.clear(slot);
+            liveCount--;
+        }
+    }
+
+    private void compactIfNeeded() {
+        int deadSlots = slotCount - liveCount;
+
+        if (deadSlots < 1024 || deadSlots < liveCount / 4) {
+            return;
+        }
+
+        long[] oldIds = ids;
+        String[] oldNames = names;
+        String[] oldTexts = texts;
+        BitSet oldLive = live;
+
+        reset(liveCount);
+        for (int slot = oldLive.nextSetBit(0); slot >= 0; slot = oldLive.nextSetBit(slot + 1)) {
+            append(oldIds[slot], oldNames[slot], oldTexts[slot]);
+        }
+    }
+
+    private double documentCount() {
+        return liveCount;
+    }
+
+    private double estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (Long.BYTES + 2L * Integer.BYTES);
+            for (int slot = 0; slot < slotCount; slot++) {
+                bytes += 2L * (texts[slot].length() + names[slot].length());
+            }
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                bytes += 2L * entry.getKey().length() + (long) entry.getValue().slots.length * Integer.BYTES;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String buildText(Customer customer) {
+        String sectorName = customer.getSector() != null ? customer.getSector().getName() : "";
+        return normalize(customer.getName()) + FIELD_SEPARATOR
+                + normalize(customer.getAddress()) + FIELD_SEPARATOR
+                + normalize(sectorName);
+    }
+
+    // customer.search_text holds the name and address only; the sector is matched separately.
+    private static String searchText(String text) {
+        int nameEnd = text.indexOf(FIELD_SEPARATOR);
+        int addressEnd = text.indexOf(FIELD_SEPARATOR, nameEnd + 1);
+        return text.substring(0, addressEnd < 0 ? text.length() : addressEnd);
+    }
+
+    /**
+     * Trigrams as pg_trgm extracts them: per alphanumeric word, padded with two spaces in
+     * front and one behind.
+     */
+    private static Set<String> wordTrigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        int length = text.length();
+        int i = 0;
+
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                String padded = "  " + text.substring(start, i) + " ";
+                for (int j = 0; j + GRAM_SIZE <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + GRAM_SIZE));
+                }
+            }
+        }
+
+        return trigrams;
+    }
+
+    // pg_trgm's similarity(): shared trigrams over the union, in single precision like real.
+    private static float similarity(Set<String> query, Set<String> text) {
+        if (query.isEmpty() || text.isEmpty()) {
+            return 0f;
+        }
+
+        int shared = 0;
+        for (String trigram : query) {
+            if (text.contains(trigram)) {
+                shared++;
+            }
+        }
+
+        return (float) shared / (query.size() + text.size() - shared);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            String gram = text.substring(i, i + GRAM_SIZE);
+            if (gram.indexOf(FIELD_SEPARATOR) < 0) {
+                grams.add(gram);
+            }
+        }
+
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        return Normalizer.normalize(value.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record PendingUpdate(Long id, boolean visible, String name, String text) {
+    }
+
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package cl.casero.migration.service;
 
 import cl.casero.migration.domain.MonthlyStatistic;
+import cl.casero.migration.domain.Transaction;
+import cl.casero.migration.domain.enums.SaleType;
 
 import java.time.LocalDate;
 
@@ -14,4 +16,10 @@ public interface StatisticsService {
     int getAverageDebt();
 
     long getCustomersCount();
+
+    void recordTransaction(Transaction transaction, Integer itemsCount, SaleType saleType);
+
+    void refreshMonthlyRollup(LocalDate start, LocalDate end);
+
+    void rebuildMonthlyRollup();
 }
@@ -6,6 +6,10 @@ import cl.casero.migration.service.dto.DebtForgivenessForm;
 import cl.casero.migration.service.dto.MoneyTransactionForm;
 import cl.casero.migration.service.dto.PaymentForm;
 import cl.casero.migration.service.dto.SaleForm;
+import cl.casero.migration.service.dto.TransactionCursor;
+import cl.casero.migration.service.dto.TransactionFeedCursor;
+import cl.casero.migration.service.dto.TransactionFeedSlice;
+import cl.casero.migration.service.dto.TransactionHistorySlice;
 import cl.casero.migration.service.dto.TransactionMonthlySummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,10 +18,12 @@ import java.time.LocalDate;
 import java.util.List;
 
 public interface TransactionService {
-    Page<Transaction> listAll(TransactionType type, Pageable pageable);
+    TransactionFeedSlice listFeed(TransactionType type, TransactionFeedCursor cursor, int size);
 
     Page<Transaction> listByCustomer(Long customerId, Pageable pageable);
 
+    TransactionHistorySlice listHistoryByCustomer(Long customerId, TransactionCursor cursor, int size, boolean ascending);
+
     List<Transaction> listAllByCustomer(Long customerId);
 
     List<Transaction> listRecentByCustomer(Long customerId, int limit);
@@ -0,0 +1,11 @@
+package cl.casero.migration.service.dto;
+
+/**
+ * Immutable view of the {@code app_config} values the application reads, tagged with the
+ * {@code app_config_version} it was built from.
+ */
+public record AppConfigSnapshot(
+    boolean auditEnabled,
+    long version
+) {
+}
@@ -0,0 +1,18 @@
+package cl.casero.migration.service.dto;
+
+import java.time.Instant;
+
+public record AuditEventCursor(
+    Instant createdAt,
+    Long id
+) {
+    public String encode() {
+        return CursorCodec.encode(createdAt, id);
+    }
+
+    public static AuditEventCursor decode(String value) {
+        return CursorCodec.decode(value, 2, fields -> new AuditEventCursor(
+                Instant.parse(fields[0]),
+                Long.parseLong(fields[1])));
+    }
+}
@@ -0,0 +1,46 @@
+package cl.casero.migration.service.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque keyset cursors: the fields are joined with {@code |} and Base64url-encoded.
+ * Anything that does not decode to the expected number of parseable fields is treated
+ * as no cursor, so a tampered or stale value simply restarts from the first page.
+ */
+final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final Pattern SPLITTER = Pattern.compile(Pattern.quote(SEPARATOR));
+
+    private CursorCodec() {
+    }
+
+    static String encode(Object... fields) {
+        StringJoiner raw = new StringJoiner(SEPARATOR);
+        for (Object field : fields) {
+            raw.add(String.valueOf(field));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static <T> T decode(String value, int fieldCount, Function<String[], T> parser) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] fields = SPLITTER.split(raw, -1);
+            if (fields.length != fieldCount) {
+                return null;
+            }
+            return parser.apply(fields);
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
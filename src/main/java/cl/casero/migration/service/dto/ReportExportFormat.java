@@ -0,0 +1,28 @@
+package cl.casero.migration.service.dto;
+
+public enum ReportExportFormat {
+    PDF("pdf", "application/pdf", "PDF combinado"),
+    ZIP("zip", "application/zip", "ZIP con un PDF por cliente");
+
+    private final String extension;
+    private final String contentType;
+    private final String label;
+
+    ReportExportFormat(String extension, String contentType, String label) {
+        this.extension = extension;
+        this.contentType = contentType;
+        this.label = label;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,41 @@
+package cl.casero.migration.service.dto;
+
+import java.time.Instant;
+
+public record ReportExportStatus(
+    String id,
+    State state,
+    ReportExportFormat format,
+    String label,
+    int total,
+    int completed,
+    double reportsPerSecond,
+    Instant createdAt,
+    Instant finishedAt,
+    String error
+) {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    public boolean isDownloadReady() {
+        return state == State.COMPLETED;
+    }
+
+    public int getPercent() {
+        return total == 0 ? 100 : (int) Math.floor(completed * 100.0 / total);
+    }
+
+    public String getFilename() {
+        String safeLabel = label != null ? label.replaceAll("[^a-zA-Z0-9]+", "-") : "clientes";
+        return "casero-informes-" + safeLabel + "." + format.getExtension();
+    }
+}
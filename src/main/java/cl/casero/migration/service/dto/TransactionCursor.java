@@ -0,0 +1,18 @@
+package cl.casero.migration.service.dto;
+
+import java.time.OffsetDateTime;
+
+public record TransactionCursor(
+    OffsetDateTime createdAt,
+    Long id
+) {
+    public String encode() {
+        return CursorCodec.encode(createdAt, id);
+    }
+
+    public static TransactionCursor decode(String value) {
+        return CursorCodec.decode(value, 2, fields -> new TransactionCursor(
+                OffsetDateTime.parse(fields[0]),
+                Long.parseLong(fields[1])));
+    }
+}
@@ -0,0 +1,21 @@
+package cl.casero.migration.service.dto;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+public record TransactionFeedCursor(
+    LocalDate date,
+    OffsetDateTime createdAt,
+    Long id
+) {
+    public String encode() {
+        return CursorCodec.encode(date, createdAt, id);
+    }
+
+    public static TransactionFeedCursor decode(String value) {
+        return CursorCodec.decode(value, 3, fields -> new TransactionFeedCursor(
+                LocalDate.parse(fields[0]),
+                OffsetDateTime.parse(fields[1]),
+                Long.parseLong(fields[2])));
+    }
+}
@@ -0,0 +1,15 @@
+package cl.casero.migration.service.dto;
+
+import cl.casero.migration.repository.TransactionRepository;
+
+import java.util.List;
+
+public record TransactionFeedSlice(
+    List<TransactionRepository.TransactionListView> content,
+    TransactionFeedCursor nextCursor,
+    Long estimatedTotal
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
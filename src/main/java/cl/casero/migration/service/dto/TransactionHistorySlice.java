@@ -0,0 +1,14 @@
+package cl.casero.migration.service.dto;
+
+import cl.casero.migration.domain.Transaction;
+
+import java.util.List;
+
+public record TransactionHistorySlice(
+    List<Transaction> content,
+    TransactionCursor nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -3,13 +3,17 @@ package cl.casero.migration.service.impl;
 import cl.casero.migration.domain.AppConfig;
 import cl.casero.migration.repository.AppConfigRepository;
 import cl.casero.migration.service.AppConfigService;
+import cl.casero.migration.service.dto.AppConfigSnapshot;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.data.domain.Sort;
 
 @Service
@@ -19,6 +23,7 @@ public class AppConfigServiceImpl implements AppConfigService {
     private static final String AUDIT_ENABLED_KEY = "audit.logging.enabled";
     private final AppConfigRepository repository;
     private final ObjectMapper objectMapper;
+    private volatile AppConfigSnapshot snapshot;
 
     @Override
     @Transactional(readOnly = true)
@@ -27,9 +32,19 @@ public class AppConfigServiceImpl implements AppConfigService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public boolean isAuditEnabled() {
-        return parseBooleanValue(repository.findByConfigKey(AUDIT_ENABLED_KEY).map(AppConfig::getValue).orElse(null));
+        return currentSnapshot().auditEnabled();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app-config.refresh-interval:PT10S}")
+    public void refreshIfChanged() {
+        AppConfigSnapshot current = snapshot;
+        Long version = repository.findVersion();
+
+        if (current == null || version == null || current.version() != version) {
+            snapshot = loadSnapshot();
+        }
     }
 
     @Override
@@ -52,7 +67,31 @@ public class AppConfigServiceImpl implements AppConfigService {
                 return c;
             });
         config.setValue(normalizedValue);
-        repository.save(config);
+        repository.saveAndFlush(config);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshot = loadSnapshot();
+            }
+        });
+    }
+
+    private AppConfigSnapshot currentSnapshot() {
+        AppConfigSnapshot current = snapshot;
+        if (current == null) {
+            current = loadSnapshot();
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private AppConfigSnapshot loadSnapshot() {
+        // Read the version first: a change committed after it bumps it again, so the next
+        // refresh reloads instead of keeping values newer reads would have missed.
+        Long version = repository.findVersion();
+        String auditEnabled = repository.findValueByConfigKey(AUDIT_ENABLED_KEY).orElse(null);
+
+        return new AppConfigSnapshot(parseBooleanValue(auditEnabled), version != null ? version : -1L);
     }
 
     private boolean parseBooleanValue(String raw) {
@@ -23,7 +23,7 @@ public class AppUserServiceImpl implements AppUserService {
     @Override
     @Transactional(readOnly = true)
     public Optional<AppUser> findByPinFingerprint(String pinFingerprint) {
-        return repository.findByPinFingerprint(pinFingerprint);
+        return repository.findCachedByPinFingerprint(pinFingerprint);
     }
 
     @Override
@@ -41,6 +41,7 @@ public class AppUserServiceImpl implements AppUserService {
         String hash = pinHasher.hashWithSalt(sanitizedPin, salt);
         String fingerprint = pinHasher.fingerprint(sanitizedPin);
 
+        // Uniqueness is checked against the table, not the login cache.
         repository.findByPinFingerprint(fingerprint).ifPresent(existing -> {
             throw new IllegalArgumentException("Ya existe un usuario con ese PIN");
         });
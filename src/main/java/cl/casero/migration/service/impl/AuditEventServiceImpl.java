@@ -1,18 +1,18 @@
 package cl.casero.migration.service.impl;
 
 import cl.casero.migration.domain.AppUser;
-import cl.casero.migration.domain.AuditEvent;
 import cl.casero.migration.domain.enums.AuditEventType;
-import cl.casero.migration.repository.AuditEventRepository;
-import cl.casero.migration.service.AppConfigService;
 import cl.casero.migration.service.AuditEventService;
+import cl.casero.migration.service.AuditEventWriter;
 import jakarta.servlet.http.HttpServletRequest;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 @Service
@@ -20,15 +20,14 @@ import org.springframework.util.StringUtils;
 @Slf4j
 public class AuditEventServiceImpl implements AuditEventService {
 
-    private final AuditEventRepository repository;
-    private final AppConfigService appConfigService;
+    private static final Pattern IPV4 = Pattern.compile(
+            "((25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)\\.){3}(25[0-5]|2[0-4]\\d|1\\d\\d|[1-9]?\\d)");
+    private static final Pattern IPV6_CHARACTERS = Pattern.compile("[0-9a-fA-F:.]{2,45}");
+
+    private final AuditEventWriter auditEventWriter;
 
     @Override
-    @Transactional
     public void logEvent(AuditEventType eventType, AppUser user, Map<String, Object> payload, HttpServletRequest request) {
-        if (!appConfigService.isAuditEnabled()) {
-            return;
-        }
         if (eventType == null) {
             return;
         }
@@ -36,15 +35,12 @@ public class AuditEventServiceImpl implements AuditEventService {
             return;
         }
         try {
-            AuditEvent event = new AuditEvent();
-            event.setEventType(eventType);
-            event.setUser(user);
-            event.setPayload(payload != null ? new HashMap<>(payload) : Map.of());
-            if (request != null) {
-                event.setIp(resolveIp(request));
-                event.setUserAgent(request.getHeader("User-Agent"));
-            }
-            repository.save(event);
+            auditEventWriter.enqueue(
+                eventType,
+                user != null ? user.getId() : null,
+                payload != null ? new HashMap<>(payload) : Map.of(),
+                request != null ? resolveIp(request) : null,
+                request != null ? request.getHeader("User-Agent") : null);
         } catch (Exception ex) {
             log.warn("No se pudo registrar evento de auditoría {}: {}", eventType, ex.getMessage());
         }
@@ -53,8 +49,31 @@ public class AuditEventServiceImpl implements AuditEventService {
     private String resolveIp(HttpServletRequest request) {
         String forwardedFor = request.getHeader("X-Forwarded-For");
         if (StringUtils.hasText(forwardedFor)) {
-            return forwardedFor.split(",")[0].trim();
+            return normalizeIp(forwardedFor.split(",")[0].trim());
+        }
+        return normalizeIp(request.getRemoteAddr());
+    }
+
+    /**
+     * Returns the address in canonical form, or {@code null} when it is not an IPv4 or
+     * IPv6 literal. The header is client controlled and the column is {@code inet}, so
+     * anything else would make the insert fail. Only literals reach {@link InetAddress},
+     * which therefore never performs a DNS lookup.
+     */
+    static String normalizeIp(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        if (IPV4.matcher(value).matches()) {
+            return value;
+        }
+        if (value.indexOf(':') < 0 || !IPV6_CHARACTERS.matcher(value).matches()) {
+            return null;
+        }
+        try {
+            return InetAddress.getByName(value).getHostAddress();
+        } catch (UnknownHostException ex) {
+            return null;
         }
-        return request.getRemoteAddr();
     }
 }
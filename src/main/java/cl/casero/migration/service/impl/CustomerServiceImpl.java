@@ -2,8 +2,12 @@ package cl.casero.migration.service.impl;
 
 import cl.casero.migration.domain.Customer;
 import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.repository.TransactionRepository;
 import cl.casero.migration.service.CustomerNotFoundException;
+import cl.casero.migration.service.CustomerScoreService;
+import cl.casero.migration.service.CustomerSearchIndex;
 import cl.casero.migration.service.SectorService;
+import cl.casero.migration.service.StatisticsService;
 import cl.casero.migration.service.CustomerService;
 import cl.casero.migration.service.dto.CreateCustomerForm;
 import cl.casero.migration.service.dto.OverdueCustomerSummary;
@@ -21,6 +25,10 @@ public class CustomerServiceImpl implements CustomerService {
 
     private final SectorService sectorService;
     private final CustomerRepository customerRepository;
+    private final CustomerScoreService customerScoreService;
+    private final CustomerSearchIndex customerSearchIndex;
+    private final StatisticsService statisticsService;
+    private final TransactionRepository transactionRepository;
 
     @Override
     public Page<Customer> search(String filter, Pageable pageable) {
@@ -28,6 +36,10 @@ public class CustomerServiceImpl implements CustomerService {
             return Page.empty(pageable);
         }
 
+        if (customerSearchIndex.isActive()) {
+            return customerSearchIndex.search(filter, pageable);
+        }
+
         return customerRepository.search(filter.trim(), pageable);
     }
 
@@ -46,8 +58,12 @@ public class CustomerServiceImpl implements CustomerService {
         customer.setAddress(form.getAddress().trim());
         customer.setDebt(0);
         customer.setEnabled(true);
-        
-        return customerRepository.save(customer);
+
+        Customer created = customerRepository.save(customer);
+        customerScoreService.refreshScore(created);
+        customerSearchIndex.index(created);
+
+        return created;
     }
 
     @Override
@@ -55,6 +71,12 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = get(id);
         customer.setEnabled(false);
         customerRepository.save(customer);
+        customerSearchIndex.index(customer);
+
+        TransactionRepository.DateRangeView finishedCards = transactionRepository.findFinishedCardDateRange(id);
+        if (finishedCards != null && finishedCards.getFirstDate() != null) {
+            statisticsService.refreshMonthlyRollup(finishedCards.getFirstDate(), finishedCards.getLastDate());
+        }
     }
 
     @Override
@@ -62,6 +84,7 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = get(id);
         customer.setAddress(address);
         customerRepository.save(customer);
+        customerSearchIndex.index(customer);
     }
 
     @Override
@@ -69,6 +92,7 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = get(id);
         customer.setName(name.trim());
         customerRepository.save(customer);
+        customerSearchIndex.index(customer);
     }
 
     @Override
@@ -76,6 +100,7 @@ public class CustomerServiceImpl implements CustomerService {
         Customer customer = get(id);
         customer.setSector(sectorService.get(sectorId));
         customerRepository.save(customer);
+        customerSearchIndex.index(customer);
     }
 
     @Override
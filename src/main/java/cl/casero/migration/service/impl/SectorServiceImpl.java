@@ -7,7 +7,6 @@ import lombok.AllArgsConstructor;
 
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
 import java.util.List;
 
 @Service
@@ -18,10 +17,7 @@ public class SectorServiceImpl implements SectorService {
 
     @Override
     public List<Sector> listAll() {
-        return sectorRepository.findAll()
-                .stream()
-                .sorted(Comparator.comparing(Sector::getName))
-                .toList();
+        return sectorRepository.findAllByOrderByNameAsc();
     }
 
     @Override
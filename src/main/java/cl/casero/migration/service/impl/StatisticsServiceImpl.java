@@ -1,15 +1,18 @@
 package cl.casero.migration.service.impl;
 
 import cl.casero.migration.domain.MonthlyStatistic;
+import cl.casero.migration.domain.MonthlyStatisticRollup;
+import cl.casero.migration.domain.Transaction;
 import cl.casero.migration.domain.enums.SaleType;
 import cl.casero.migration.domain.enums.TransactionType;
 import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.repository.MonthlyStatisticRollupRepository;
 import cl.casero.migration.repository.StatisticRepository;
-import cl.casero.migration.repository.TransactionRepository;
 import cl.casero.migration.service.StatisticsService;
 import lombok.AllArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 
@@ -17,28 +20,30 @@ import java.time.LocalDate;
 @AllArgsConstructor
 public class StatisticsServiceImpl implements StatisticsService {
 
+    private static final LocalDate REBUILD_FROM = LocalDate.of(1970, 1, 1);
+    private static final LocalDate REBUILD_TO = LocalDate.of(9999, 12, 31);
+
     private final CustomerRepository customerRepository;
+    private final MonthlyStatisticRollupRepository monthlyStatisticRollupRepository;
     private final StatisticRepository statisticRepository;
-    private final TransactionRepository transactionRepository;
 
     @Override
     public MonthlyStatistic getMonthlyStatistic(LocalDate start, LocalDate end) {
-        MonthlyStatistic monthlyStatistic = new MonthlyStatistic();
+        if (isWholeMonth(start, end)) {
+            return monthlyStatisticRollupRepository.findByYearAndMonth(start.getYear(), start.getMonthValue())
+                    .map(StatisticsServiceImpl::toMonthlyStatistic)
+                    .orElseGet(MonthlyStatistic::new);
+        }
 
-        long finishedCards = transactionRepository.countFinishedCards(start, end);
-        long newCards = statisticRepository.countByTypeAndSaleType(TransactionType.SALE, SaleType.NEW_SALE, start, end);
-        long maintenance = statisticRepository.countByTypeAndSaleType(TransactionType.SALE, SaleType.MAINTENANCE, start, end);
-
-        Integer totalItems = statisticRepository.sumItemsByType(TransactionType.SALE, start, end);
-        Integer payments = statisticRepository.sumAmountByType(TransactionType.PAYMENT, start, end);
-        Integer sales = statisticRepository.sumAmountByType(TransactionType.SALE, start, end);
+        StatisticRepository.MonthlyStatisticView view = statisticRepository.summarizeBetween(start, end);
+        MonthlyStatistic monthlyStatistic = new MonthlyStatistic();
 
-        monthlyStatistic.setFinishedCardsCount((int) finishedCards);
-        monthlyStatistic.setNewCardsCount((int) newCards);
-        monthlyStatistic.setMaintenanceCount((int) maintenance);
-        monthlyStatistic.setTotalItemsCount(totalItems == null ? 0 : totalItems);
-        monthlyStatistic.setPaymentsCount(payments == null ? 0 : payments);
-        monthlyStatistic.setSalesCount(sales == null ? 0 : sales);
+        monthlyStatistic.setFinishedCardsCount(toInt(view.getFinishedCardsCount()));
+        monthlyStatistic.setNewCardsCount(toInt(view.getNewCardsCount()));
+        monthlyStatistic.setMaintenanceCount(toInt(view.getMaintenanceCount()));
+        monthlyStatistic.setTotalItemsCount(toInt(view.getTotalItemsCount()));
+        monthlyStatistic.setPaymentsCount(toInt(view.getPaymentsAmount()));
+        monthlyStatistic.setSalesCount(toInt(view.getSalesAmount()));
 
         return monthlyStatistic;
     }
@@ -67,4 +72,67 @@ public class StatisticsServiceImpl implements StatisticsService {
     public long getCustomersCount() {
         return customerRepository.count();
     }
+
+    @Override
+    public void recordTransaction(Transaction transaction, Integer itemsCount, SaleType saleType) {
+        LocalDate date = transaction.getDate();
+        int amount = transaction.getAmount() != null ? transaction.getAmount() : 0;
+        boolean isSale = transaction.getType() == TransactionType.SALE;
+        boolean isPayment = transaction.getType() == TransactionType.PAYMENT;
+
+        monthlyStatisticRollupRepository.increment(
+                date.getYear(),
+                date.getMonthValue(),
+                transaction.getBalance() != null && transaction.getBalance() == 0 ? 1 : 0,
+                isSale && saleType == SaleType.NEW_SALE ? 1 : 0,
+                isSale && saleType == SaleType.MAINTENANCE ? 1 : 0,
+                isSale && itemsCount != null ? itemsCount : 0,
+                isPayment ? amount : 0,
+                isSale ? amount : 0);
+    }
+
+    @Override
+    @Transactional
+    public void refreshMonthlyRollup(LocalDate start, LocalDate end) {
+        LocalDate first = start.withDayOfMonth(1);
+        LocalDate last = end.withDayOfMonth(end.lengthOfMonth());
+
+        monthlyStatisticRollupRepository.deleteByMonthKeyBetween(monthKey(first), monthKey(last));
+        monthlyStatisticRollupRepository.rebuildBetween(first, last);
+    }
+
+    @Override
+    @Transactional
+    public void rebuildMonthlyRollup() {
+        monthlyStatisticRollupRepository.deleteAllInBatch();
+        monthlyStatisticRollupRepository.rebuildBetween(REBUILD_FROM, REBUILD_TO);
+    }
+
+    private static boolean isWholeMonth(LocalDate start, LocalDate end) {
+        return start != null
+                && end != null
+                && start.getDayOfMonth() == 1
+                && end.equals(start.withDayOfMonth(start.lengthOfMonth()));
+    }
+
+    private static int toInt(Long value) {
+        return value == null ? 0 : value.intValue();
+    }
+
+    private static int monthKey(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    private static MonthlyStatistic toMonthlyStatistic(MonthlyStatisticRollup rollup) {
+        MonthlyStatistic monthlyStatistic = new MonthlyStatistic();
+
+        monthlyStatistic.setFinishedCardsCount(rollup.getFinishedCardsCount());
+        monthlyStatistic.setNewCardsCount(rollup.getNewCardsCount());
+        monthlyStatistic.setMaintenanceCount(rollup.getMaintenanceCount());
+        monthlyStatistic.setTotalItemsCount(rollup.getTotalItemsCount());
+        monthlyStatistic.setPaymentsCount(rollup.getPaymentsAmount());
+        monthlyStatistic.setSalesCount(rollup.getSalesAmount());
+
+        return monthlyStatistic;
+    }
 }
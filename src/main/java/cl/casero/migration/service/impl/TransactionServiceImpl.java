@@ -9,15 +9,23 @@ import cl.casero.migration.repository.CustomerRepository;
 import cl.casero.migration.repository.StatisticRepository;
 import cl.casero.migration.repository.TransactionRepository;
 import cl.casero.migration.service.CustomerNotFoundException;
+import cl.casero.migration.service.CustomerScoreCache;
+import cl.casero.migration.service.CustomerScoreService;
+import cl.casero.migration.service.StatisticsService;
 import cl.casero.migration.service.TransactionService;
 import cl.casero.migration.service.dto.DebtForgivenessForm;
 import cl.casero.migration.service.dto.MoneyTransactionForm;
 import cl.casero.migration.service.dto.PaymentForm;
 import cl.casero.migration.service.dto.SaleForm;
+import cl.casero.migration.service.dto.TransactionCursor;
+import cl.casero.migration.service.dto.TransactionFeedCursor;
+import cl.casero.migration.service.dto.TransactionFeedSlice;
+import cl.casero.migration.service.dto.TransactionHistorySlice;
 import cl.casero.migration.service.dto.TransactionMonthlySummary;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,9 +35,9 @@ import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -37,18 +45,43 @@ import java.util.stream.Collectors;
 public class TransactionServiceImpl implements TransactionService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerScoreCache customerScoreCache;
+    private final CustomerScoreService customerScoreService;
     private final StatisticRepository statisticRepository;
+    private final StatisticsService statisticsService;
     private final TransactionRepository transactionRepository;
 
     private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
 
     @Override
-    public Page<Transaction> listAll(TransactionType type, Pageable pageable) {
+    @Transactional(readOnly = true)
+    public TransactionFeedSlice listFeed(TransactionType type, TransactionFeedCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<TransactionRepository.TransactionListView> rows;
+
         if (type == null) {
-            return transactionRepository.findAllVisible(pageable);
+            rows = cursor == null
+                    ? transactionRepository.findVisibleFeed(limit)
+                    : transactionRepository.findVisibleFeedAfter(cursor.date(), cursor.createdAt(), cursor.id(), limit);
+        } else {
+            rows = cursor == null
+                    ? transactionRepository.findVisibleFeedByType(type, limit)
+                    : transactionRepository.findVisibleFeedByTypeAfter(type, cursor.date(), cursor.createdAt(), cursor.id(), limit);
         }
 
-        return transactionRepository.findVisibleByType(type, pageable);
+        Long estimatedTotal = type == null
+                ? transactionRepository.estimateCount()
+                : transactionRepository.estimateCountByType(type.name());
+
+        if (rows.size() <= size) {
+            return new TransactionFeedSlice(rows, null, estimatedTotal);
+        }
+
+        List<TransactionRepository.TransactionListView> content = rows.subList(0, size);
+        TransactionRepository.TransactionListView last = content.get(content.size() - 1);
+        TransactionFeedCursor nextCursor = new TransactionFeedCursor(last.getDate(), last.getCreatedAt(), last.getId());
+
+        return new TransactionFeedSlice(content, nextCursor, estimatedTotal);
     }
 
     @Override
@@ -56,6 +89,37 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionRepository.findVisibleByCustomerId(customerId, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionHistorySlice listHistoryByCustomer(
+        Long customerId,
+        TransactionCursor cursor,
+        int size,
+        boolean ascending
+    ) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Transaction> rows;
+
+        if (cursor == null) {
+            rows = ascending
+                    ? transactionRepository.findVisibleHistoryAsc(customerId, limit)
+                    : transactionRepository.findVisibleHistoryDesc(customerId, limit);
+        } else {
+            rows = ascending
+                    ? transactionRepository.findVisibleHistoryAscAfter(customerId, cursor.createdAt(), cursor.id(), limit)
+                    : transactionRepository.findVisibleHistoryDescAfter(customerId, cursor.createdAt(), cursor.id(), limit);
+        }
+
+        if (rows.size() <= size) {
+            return new TransactionHistorySlice(rows, null);
+        }
+
+        List<Transaction> content = rows.subList(0, size);
+        Transaction last = content.get(content.size() - 1);
+
+        return new TransactionHistorySlice(content, new TransactionCursor(last.getCreatedAt(), last.getId()));
+    }
+
     @Override
     public List<Transaction> listAllByCustomer(Long customerId) {
         return transactionRepository.findVisibleByCustomerIdOrderByDateDescIdDesc(customerId);
@@ -100,6 +164,10 @@ public class TransactionServiceImpl implements TransactionService {
                 newBalance
         );
 
+        if (customer.getLastPaymentDate() == null || transaction.getDate().isAfter(customer.getLastPaymentDate())) {
+            customer.setLastPaymentDate(transaction.getDate());
+        }
+
         persistTransaction(transaction, null, null);
     }
 
@@ -147,7 +215,16 @@ public class TransactionServiceImpl implements TransactionService {
                 .orElse(null);
         int recalculatedDebt = lastTransaction != null ? lastTransaction.getBalance() : 0;
         customer.setDebt(recalculatedDebt);
+
+        if (transaction.getType() == TransactionType.PAYMENT) {
+            customer.setLastPaymentDate(transactionRepository
+                    .findLastDateByCustomerIdAndType(customer.getId(), TransactionType.PAYMENT));
+        }
+
         customerRepository.save(customer);
+        statisticsService.refreshMonthlyRollup(transaction.getDate(), transaction.getDate());
+        customerScoreCache.invalidate(customer.getId());
+        customerScoreService.refreshScore(customer);
     }
 
     private void registerMoneyFlow(Long customerId, MoneyTransactionForm form, TransactionType type) {
@@ -202,6 +279,9 @@ public class TransactionServiceImpl implements TransactionService {
         statistic.setSaleType(saleType);
 
         statisticRepository.save(statistic);
+        statisticsService.recordTransaction(transaction, itemsCount, saleType);
+        customerScoreCache.invalidate(customer.getId());
+        customerScoreService.refreshScore(customer);
     }
 
     @Override
@@ -218,21 +298,17 @@ public class TransactionServiceImpl implements TransactionService {
         LocalDate sanitizedStart = startBase.withDayOfMonth(1);
         LocalDate sanitizedEnd = endBase.withDayOfMonth(endBase.lengthOfMonth());
 
-        List<Transaction> transactions = transactionRepository.findVisibleByDateBetween(sanitizedStart, sanitizedEnd);
-        Map<YearMonth, List<Transaction>> grouped = transactions.stream()
-                .collect(Collectors.groupingBy(tx -> YearMonth.from(tx.getDate())));
+        Map<YearMonth, TransactionRepository.MonthlyTotalsView> totalsByMonth = new HashMap<>();
+        for (TransactionRepository.MonthlyTotalsView totals
+                : transactionRepository.sumVisibleByMonthBetween(sanitizedStart, sanitizedEnd)) {
+            totalsByMonth.put(YearMonth.from(totals.getMonth()), totals);
+        }
 
         List<TransactionMonthlySummary> result = new ArrayList<>();
         for (YearMonth ym = YearMonth.from(sanitizedStart); !ym.isAfter(YearMonth.from(sanitizedEnd)); ym = ym.plusMonths(1)) {
-            List<Transaction> monthTransactions = grouped.getOrDefault(ym, List.of());
-            long sales = monthTransactions.stream()
-                    .filter(tx -> tx.getType() == TransactionType.SALE)
-                    .mapToLong(Transaction::getAmount)
-                    .sum();
-            long payments = monthTransactions.stream()
-                    .filter(tx -> tx.getType() == TransactionType.PAYMENT)
-                    .mapToLong(Transaction::getAmount)
-                    .sum();
+            TransactionRepository.MonthlyTotalsView totals = totalsByMonth.get(ym);
+            long sales = totals != null && totals.getSalesTotal() != null ? totals.getSalesTotal() : 0L;
+            long payments = totals != null && totals.getPaymentsTotal() != null ? totals.getPaymentsTotal() : 0L;
             result.add(new TransactionMonthlySummary(ym.atDay(1), sales, payments));
         }
         return result;
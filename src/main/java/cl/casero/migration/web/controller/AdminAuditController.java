@@ -1,16 +1,17 @@
 package cl.casero.migration.web.controller;
 
-import cl.casero.migration.domain.AuditEvent;
 import cl.casero.migration.domain.enums.AuditEventType;
 import cl.casero.migration.repository.AuditEventRepository;
+import cl.casero.migration.repository.AuditEventRepositoryCustom.AuditEventFilter;
+import cl.casero.migration.repository.AuditEventRepositoryCustom.AuditEventRow;
+import cl.casero.migration.repository.AuditEventRepositoryCustom.PageViewRollupRow;
+import cl.casero.migration.service.dto.AuditEventCursor;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -19,47 +20,91 @@ import org.springframework.web.bind.annotation.RequestParam;
 @RequiredArgsConstructor
 public class AdminAuditController {
 
+    private static final ZoneId DEFAULT_ZONE = ZoneId.of("America/Santiago");
+
     private final AuditEventRepository auditEventRepository;
 
     @GetMapping("/admin/audit")
-    @Transactional(readOnly = true)
     public String audit(
-        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "cursor", required = false) String cursor,
         @RequestParam(value = "size", defaultValue = "20") int size,
         @RequestParam(value = "eventType", required = false) String eventTypeParam,
         @RequestParam(value = "payloadType", required = false) String payloadType,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
         Model model
     ) {
-        int sanitizedPage = Math.max(page, 0);
         int sanitizedSize = Math.min(Math.max(size, 1), 100);
-        Pageable pageable = PageRequest.of(sanitizedPage, sanitizedSize, Sort.by(Sort.Direction.DESC, "createdAt"));
         AuditEventType filterType = parseEventType(eventTypeParam);
         String sanitizedPayloadType = sanitize(payloadType);
+        AuditEventCursor position = AuditEventCursor.decode(cursor);
+        AuditEventFilter filter = new AuditEventFilter(
+            filterType,
+            sanitizedPayloadType,
+            from != null ? from.atStartOfDay(DEFAULT_ZONE).toInstant() : null,
+            to != null ? to.plusDays(1).atStartOfDay(DEFAULT_ZONE).toInstant() : null);
+
+        List<AuditEventRow> rows = auditEventRepository.findPage(
+            filter,
+            position != null ? position.createdAt() : null,
+            position != null ? position.id() : null,
+            sanitizedSize + 1);
+        AuditEventCursor nextCursor = null;
 
-        var events = resolveEvents(pageable, filterType, sanitizedPayloadType);
+        if (rows.size() > sanitizedSize) {
+            rows = rows.subList(0, sanitizedSize);
+            AuditEventRow last = rows.get(rows.size() - 1);
+            nextCursor = new AuditEventCursor(last.createdAt(), last.id());
+        }
 
-        model.addAttribute("events", events);
-        model.addAttribute("page", sanitizedPage);
+        model.addAttribute("events", rows);
+        model.addAttribute("nextCursor", nextCursor != null ? nextCursor.encode() : null);
+        model.addAttribute("isFirstPage", position == null);
+        model.addAttribute("estimatedTotal", auditEventRepository.estimateCount(filter));
         model.addAttribute("size", sanitizedSize);
         model.addAttribute("eventTypes", AuditEventType.values());
         model.addAttribute("selectedEventType", filterType);
         model.addAttribute("payloadType", sanitizedPayloadType);
         model.addAttribute("payloadTypeOptions", payloadTypeOptions());
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
 
         return "admin/audit";
     }
 
-    private Page<AuditEvent> resolveEvents(Pageable pageable, AuditEventType filterType, String payloadType) {
-        if (payloadType != null && filterType != null) {
-            return auditEventRepository.findByEventTypeAndPayloadType(filterType, payloadType, pageable);
-        }
-        if (payloadType != null) {
-            return auditEventRepository.findByPayloadType(payloadType, pageable);
-        }
-        if (filterType != null) {
-            return auditEventRepository.findByEventTypeOrderByCreatedAtDesc(filterType, pageable);
+    @GetMapping("/admin/audit/page-views")
+    public String pageViews(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "50") int size,
+        @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        Model model
+    ) {
+        int sanitizedSize = Math.min(Math.max(size, 1), 200);
+        AuditEventCursor position = AuditEventCursor.decode(cursor);
+
+        List<PageViewRollupRow> rows = auditEventRepository.findPageViewRollups(
+            from != null ? from.atStartOfDay(DEFAULT_ZONE).toInstant() : null,
+            to != null ? to.plusDays(1).atStartOfDay(DEFAULT_ZONE).toInstant() : null,
+            position != null ? position.createdAt() : null,
+            position != null ? position.id() : null,
+            sanitizedSize + 1);
+        AuditEventCursor nextCursor = null;
+
+        if (rows.size() > sanitizedSize) {
+            rows = rows.subList(0, sanitizedSize);
+            PageViewRollupRow last = rows.get(rows.size() - 1);
+            nextCursor = new AuditEventCursor(last.hour(), last.id());
         }
-        return auditEventRepository.findAllByOrderByCreatedAtDesc(pageable);
+
+        model.addAttribute("rollups", rows);
+        model.addAttribute("nextCursor", nextCursor != null ? nextCursor.encode() : null);
+        model.addAttribute("isFirstPage", position == null);
+        model.addAttribute("size", sanitizedSize);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+
+        return "admin/audit-page-views";
     }
 
     private AuditEventType parseEventType(String value) {
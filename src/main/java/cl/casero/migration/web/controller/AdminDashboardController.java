@@ -3,7 +3,9 @@ package cl.casero.migration.web.controller;
 import cl.casero.migration.domain.enums.UserRole;
 import cl.casero.migration.service.AppConfigService;
 import cl.casero.migration.service.AppUserService;
+import cl.casero.migration.service.SectorService;
 import cl.casero.migration.service.dto.CreateUserForm;
+import cl.casero.migration.service.dto.ReportExportFormat;
 import cl.casero.migration.service.dto.UpdatePinForm;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Arrays;
@@ -18,6 +20,7 @@ public class AdminDashboardController {
 
     private final AppUserService appUserService;
     private final AppConfigService appConfigService;
+    private final SectorService sectorService;
 
     @GetMapping("/admin")
     public String admin(Model model, HttpServletRequest request) {
@@ -40,6 +43,8 @@ public class AdminDashboardController {
         model.addAttribute("users", appUserService.listAll());
         model.addAttribute("roles", Arrays.asList(UserRole.values()));
         model.addAttribute("configs", appConfigService.listAll());
+        model.addAttribute("sectors", sectorService.listAll());
+        model.addAttribute("reportExportFormats", ReportExportFormat.values());
 
         return "admin/admin";
     }
@@ -0,0 +1,151 @@
+package cl.casero.migration.web.controller;
+
+import cl.casero.migration.domain.AppUser;
+import cl.casero.migration.domain.enums.AuditEventType;
+import cl.casero.migration.service.AuditEventService;
+import cl.casero.migration.service.CustomerReportExportService;
+import cl.casero.migration.service.dto.ReportExportFormat;
+import cl.casero.migration.service.dto.ReportExportStatus;
+import cl.casero.migration.web.security.CaseroUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/reports/exports")
+public class AdminReportExportController {
+
+    private final CustomerReportExportService customerReportExportService;
+    private final AuditEventService auditEventService;
+
+    @PostMapping
+    public String startExport(
+        @RequestParam(value = "sectorId", required = false) Long sectorId,
+        @RequestParam(value = "customerIds", required = false) String customerIds,
+        @RequestParam(value = "format", defaultValue = "PDF") ReportExportFormat format,
+        RedirectAttributes redirectAttributes,
+        Authentication authentication,
+        HttpServletRequest request
+    ) {
+        Set<Long> ids = parseCustomerIds(customerIds);
+
+        if (sectorId == null && ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Selecciona un sector o ingresa los IDs de clientes");
+            return "redirect:/admin";
+        }
+
+        ReportExportStatus status;
+        try {
+            status = sectorId != null
+                    ? customerReportExportService.startSectorExport(sectorId, format)
+                    : customerReportExportService.startCustomerExport(ids, format);
+        } catch (IllegalArgumentException | IllegalStateException | NoSuchElementException ex) {
+            redirectAttributes.addFlashAttribute("error", ex.getMessage());
+            return "redirect:/admin";
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("jobId", status.id());
+        data.put("format", format.name());
+        data.put("customers", status.total());
+        if (sectorId != null) {
+            data.put("sectorId", sectorId);
+        }
+        auditEventService.logEvent(
+            AuditEventType.ACTION,
+            currentUser(authentication),
+            actionPayload("REPORT_EXPORT_STARTED", data),
+            request);
+
+        return "redirect:/admin/reports/exports/" + status.id();
+    }
+
+    @GetMapping("/{jobId}")
+    public String viewExport(@PathVariable String jobId, Model model, RedirectAttributes redirectAttributes) {
+        Optional<ReportExportStatus> status = customerReportExportService.getStatus(jobId);
+
+        if (status.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "La exportación no existe o ya expiró");
+            return "redirect:/admin";
+        }
+
+        model.addAttribute("export", status.get());
+        return "admin/report-export";
+    }
+
+    @ResponseBody
+    @GetMapping("/{jobId}/status")
+    public ResponseEntity<ReportExportStatus> exportStatus(@PathVariable String jobId) {
+        return customerReportExportService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @ResponseBody
+    @GetMapping("/{jobId}/download")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String jobId) {
+        Optional<ReportExportStatus> status = customerReportExportService.getStatus(jobId);
+        Optional<Path> result = customerReportExportService.getResult(jobId);
+
+        if (status.isEmpty() || result.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(status.get().format().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + status.get().getFilename() + "\"")
+                .body(new FileSystemResource(result.get()));
+    }
+
+    private Set<Long> parseCustomerIds(String raw) {
+        Set<Long> ids = new LinkedHashSet<>();
+
+        if (raw == null || raw.isBlank()) {
+            return ids;
+        }
+
+        Arrays.stream(raw.split("[,;\\s]+"))
+                .filter(token -> token.matches("\\d+"))
+                .map(Long::valueOf)
+                .forEach(ids::add);
+
+        return ids;
+    }
+
+    private AppUser currentUser(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof CaseroUserDetails details) {
+            return details.getAppUser();
+        }
+        return null;
+    }
+
+    private Map<String, Object> actionPayload(String type, Map<String, Object> data) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", type);
+        payload.put("data", data);
+        return payload;
+    }
+}
@@ -0,0 +1,55 @@
+package cl.casero.migration.web.controller;
+
+import cl.casero.migration.domain.AppUser;
+import cl.casero.migration.domain.enums.AuditEventType;
+import cl.casero.migration.service.AuditEventService;
+import cl.casero.migration.service.StatisticsService;
+import cl.casero.migration.web.security.CaseroUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin/statistics")
+public class AdminStatisticsController {
+
+    private final StatisticsService statisticsService;
+    private final AuditEventService auditEventService;
+
+    @PostMapping("/rollup/rebuild")
+    public String rebuildMonthlyRollup(
+        RedirectAttributes redirectAttributes,
+        Authentication authentication,
+        HttpServletRequest request
+    ) {
+        statisticsService.rebuildMonthlyRollup();
+        redirectAttributes.addFlashAttribute("message", "Estadísticas mensuales recalculadas");
+        auditEventService.logEvent(
+            AuditEventType.ACTION,
+            currentUser(authentication),
+            actionPayload("MONTHLY_ROLLUP_REBUILT"),
+            request);
+        return "redirect:/admin";
+    }
+
+    private AppUser currentUser(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof CaseroUserDetails details) {
+            return details.getAppUser();
+        }
+        return null;
+    }
+
+    private Map<String, Object> actionPayload(String type) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", type);
+        payload.put("data", Map.of());
+        return payload;
+    }
+}
@@ -17,6 +17,8 @@ import cl.casero.migration.service.dto.DebtForgivenessForm;
 import cl.casero.migration.service.dto.MoneyTransactionForm;
 import cl.casero.migration.service.dto.PaymentForm;
 import cl.casero.migration.service.dto.SaleForm;
+import cl.casero.migration.service.dto.TransactionCursor;
+import cl.casero.migration.service.dto.TransactionHistorySlice;
 import cl.casero.migration.service.dto.UpdateAddressForm;
 import cl.casero.migration.service.dto.UpdateNameForm;
 import cl.casero.migration.service.dto.UpdateSectorForm;
@@ -28,6 +30,9 @@ import cl.casero.migration.util.TransactionTypeUtil;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -54,6 +59,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import jakarta.servlet.http.HttpServletRequest;
 import cl.casero.migration.web.security.CaseroUserDetails;
@@ -185,14 +191,10 @@ public class CustomerController {
     public String viewCustomer(
         @PathVariable Long id,
         @RequestParam(value = "ascending", defaultValue = "false") boolean ascending,
-        @RequestParam(value = "page", defaultValue = "0") int page,
         @RequestParam(value = "size", defaultValue = "10") int size,
         Model model
     ) {
-        int sanitizedPage = Math.max(page, 0);
         int sanitizedSize = Math.min(Math.max(size, 1), 50);
-        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, "createdAt");
-        Pageable pageable = PageRequest.of(sanitizedPage, sanitizedSize, sort);
         Customer customer = customerService.get(id);
         CustomerScoreService.ScorePresentation scorePresentation = customerScoreService.getScorePresentation(customer);
         model.addAttribute("customerScore", scorePresentation.score());
@@ -200,10 +202,9 @@ public class CustomerController {
         List<CustomerScoreSummary.CycleScore> reversedCycles = new ArrayList<>(scorePresentation.cycles());
         Collections.reverse(reversedCycles);
         model.addAttribute("customerScoreCycles", reversedCycles);
-        Page<Transaction> transactions = transactionService.listByCustomer(id, pageable);
 
         model.addAttribute("customer", customer);
-        model.addAttribute("transactionsPage", transactions);
+        model.addAttribute("transactionsPageSize", sanitizedSize);
         model.addAttribute("ascending", ascending);
         model.addAttribute("transactionReportTypeOptions", buildReportTypeOptions());
 
@@ -225,13 +226,7 @@ public class CustomerController {
         Page<Transaction> transactions = transactionService.listByCustomer(id, pageable);
         List<TransactionCard> content = transactions.getContent()
                 .stream()
-                .map(transaction -> new TransactionCard(
-                        transaction.getId(),
-                        DateUtil.format(transaction.getDate()),
-                        transaction.getType().name(),
-                        transaction.getDetail(),
-                        CurrencyUtil.format(transaction.getAmount()),
-                        CurrencyUtil.format(transaction.getBalance())))
+                .map(this::toTransactionCard)
                 .toList();
         return new TransactionPageResponse(
                 content,
@@ -244,8 +239,29 @@ public class CustomerController {
     }
 
     @ResponseBody
+    @GetMapping(value = "/{id}/transactions/feed", produces = MediaType.APPLICATION_JSON_VALUE)
+    public TransactionFeedResponse listTransactionFeed(
+        @PathVariable Long id,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "10") int size,
+        @RequestParam(value = "ascending", defaultValue = "false") boolean ascending
+    ) {
+        int sanitizedSize = Math.min(Math.max(size, 1), 50);
+        TransactionHistorySlice slice = transactionService.listHistoryByCustomer(
+                id, TransactionCursor.decode(cursor), sanitizedSize, ascending);
+        List<TransactionCard> content = slice.content()
+                .stream()
+                .map(this::toTransactionCard)
+                .toList();
+
+        return new TransactionFeedResponse(
+                content,
+                slice.hasNext() ? slice.nextCursor().encode() : null,
+                slice.hasNext());
+    }
+
     @GetMapping(value = "/{id}/reports/transactions", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> downloadTransactionsReport(
+    public ResponseEntity<StreamingResponseBody> downloadTransactionsReport(
         @PathVariable Long id,
         @RequestParam(value = "range", defaultValue = "ALL") String rangeParam,
         @RequestParam(value = "months", required = false) Integer monthsParam,
@@ -253,31 +269,39 @@ public class CustomerController {
     ) {
         Customer customer = customerService.get(id);
         TransactionType filterType = parseReportType(typeParam);
-        List<Transaction> transactions = transactionService.listAllByCustomer(id);
+        LocalDate fromDate;
         String rangeLabel;
 
         if (isMonthsRange(rangeParam)) {
             int months = sanitizeMonths(monthsParam);
-            transactions = filterTransactionsByMonths(transactions, months);
+            fromDate = monthsCutoff(months);
             rangeLabel = "Últimos " + months + (months == 1 ? " mes" : " meses");
         } else {
+            fromDate = null;
             rangeLabel = "Todas las transacciones";
         }
 
-        if (filterType != null) {
-            transactions = transactions.stream()
-                    .filter(tx -> tx.getType() == filterType)
-                    .toList();
-        }
-
-        byte[] pdf = customerReportService.generateTransactionsReport(customer, transactions, rangeLabel, filterType);
+        // The report is spooled to a temporary file first: its read-only transaction, and the
+        // pooled connection behind the cursor, end when rendering does, not when a slow client
+        // finishes the download.
+        StreamingResponseBody body = out -> {
+            Path spool = Files.createTempFile("casero-informe-", ".pdf");
+            try {
+                try (OutputStream spoolOut = Files.newOutputStream(spool)) {
+                    customerReportService.writeTransactionsReport(customer, fromDate, rangeLabel, filterType, spoolOut);
+                }
+                Files.copy(spool, out);
+            } finally {
+                Files.deleteIfExists(spool);
+            }
+        };
         String safeName = customer.getName() != null ? customer.getName().replaceAll("[^a-zA-Z0-9]+", "-") : "cliente";
         String filename = "casero-informe-" + safeName + ".pdf";
 
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_PDF)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .body(pdf);
+                .body(body);
     }
 
     private Map<String, String> buildReportTypeOptions() {
@@ -311,15 +335,9 @@ public class CustomerController {
         return Math.min(monthsParam, 60);
     }
 
-    private List<Transaction> filterTransactionsByMonths(List<Transaction> transactions, int months) {
-        if (transactions == null || transactions.isEmpty()) {
-            return List.of();
-        }
+    private LocalDate monthsCutoff(int months) {
         LocalDate reference = LocalDate.now().withDayOfMonth(1);
-        LocalDate cutoff = reference.minusMonths(months - 1);
-        return transactions.stream()
-                .filter(tx -> tx.getDate() != null && !tx.getDate().isBefore(cutoff))
-                .toList();
+        return reference.minusMonths(months - 1);
     }
 
     @PostMapping("/{id}/sales")
@@ -714,6 +732,16 @@ public class CustomerController {
         return hasQuery ? customerService.search(query.trim(), pageable) : Page.empty(pageable);
     }
 
+    private TransactionCard toTransactionCard(Transaction transaction) {
+        return new TransactionCard(
+                transaction.getId(),
+                DateUtil.format(transaction.getDate()),
+                transaction.getType().name(),
+                transaction.getDetail(),
+                CurrencyUtil.format(transaction.getAmount()),
+                CurrencyUtil.format(transaction.getBalance()));
+    }
+
     private String redirectToAction(
         Long id,
         RedirectAttributes redirectAttributes,
@@ -795,6 +823,12 @@ public class CustomerController {
         String formattedBalance
     ) {}
 
+    public record TransactionFeedResponse(
+        List<TransactionCard> content,
+        String nextCursor,
+        boolean hasNext
+    ) {}
+
     public record TransactionPageResponse(
         List<TransactionCard> content,
         int page,
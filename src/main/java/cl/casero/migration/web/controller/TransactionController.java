@@ -1,17 +1,14 @@
 package cl.casero.migration.web.controller;
 
-import cl.casero.migration.domain.Transaction;
 import cl.casero.migration.domain.enums.TransactionType;
 import cl.casero.migration.service.TransactionService;
+import cl.casero.migration.service.dto.TransactionFeedCursor;
+import cl.casero.migration.service.dto.TransactionFeedSlice;
 import cl.casero.migration.service.dto.TransactionMonthlySummary;
 import cl.casero.migration.util.CurrencyUtil;
 import cl.casero.migration.util.DateTimeUtil;
 import lombok.AllArgsConstructor;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
@@ -33,18 +30,20 @@ public class TransactionController {
 
     @GetMapping
     public String listTransactions(
-        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "cursor", required = false) String cursor,
         @RequestParam(value = "size", defaultValue = "10") int size,
         @RequestParam(value = "type", required = false) TransactionType type,
         Model model
     ) {
-        int sanitizedPage = Math.max(page, 0);
         int sanitizedSize = Math.min(Math.max(size, 1), 50);
-        Sort sort = Sort.by(Sort.Direction.DESC, "date").and(Sort.by(Sort.Direction.DESC, "createdAt"));
-        Pageable pageable = PageRequest.of(sanitizedPage, sanitizedSize, sort);
-        Page<Transaction> transactionsPage = transactionService.listAll(type, pageable);
+        TransactionFeedCursor feedCursor = TransactionFeedCursor.decode(cursor);
+        TransactionFeedSlice transactionsFeed = transactionService.listFeed(type, feedCursor, sanitizedSize);
 
-        model.addAttribute("transactionsPage", transactionsPage);
+        model.addAttribute("transactions", transactionsFeed.content());
+        model.addAttribute("nextCursor", transactionsFeed.hasNext() ? transactionsFeed.nextCursor().encode() : null);
+        model.addAttribute("estimatedTotal", transactionsFeed.estimatedTotal());
+        model.addAttribute("isFirstPage", feedCursor == null);
+        model.addAttribute("pageSize", sanitizedSize);
         model.addAttribute("dateTimeUtil", DateTimeUtil.class);
         model.addAttribute("currencyUtil", CurrencyUtil.class);
         model.addAttribute("types", TransactionType.values());
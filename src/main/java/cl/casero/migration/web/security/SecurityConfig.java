@@ -54,7 +54,7 @@ public class SecurityConfig {
             .addFilterAt(pinAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(auth -> auth
                     .requestMatchers("/", "/login", "/css/**", "/js/**", "/icons/**", "/favicon.ico").permitAll()
-                    .requestMatchers("/admin/**").hasRole("ADMIN")
+                    .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                     .anyRequest().authenticated())
             .exceptionHandling(ex -> ex
                     .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/login"))
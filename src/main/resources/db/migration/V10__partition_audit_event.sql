@@ -0,0 +1,101 @@
+-- audit_event becomes a table range-partitioned by month on created_at.
+-- Month boundaries follow America/Santiago so a partition matches a calendar month in the UI.
+
+-- Creating a month partition fails while the default partition holds rows for that month,
+-- so those rows are moved into the new partition in the same transaction.
+CREATE OR REPLACE FUNCTION casero_create_audit_partition(month_start DATE)
+RETURNS VOID
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    first_day DATE := date_trunc('month', month_start)::date;
+    partition_name TEXT := 'audit_event_y' || to_char(first_day, 'YYYY') || 'm' || to_char(first_day, 'MM');
+    range_start TIMESTAMPTZ := first_day::timestamp AT TIME ZONE 'America/Santiago';
+    range_end TIMESTAMPTZ := (first_day + INTERVAL '1 month')::timestamp AT TIME ZONE 'America/Santiago';
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (
+        SELECT 1
+        FROM audit_event_default
+        WHERE created_at >= range_start
+          AND created_at < range_end
+    ) THEN
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF audit_event FOR VALUES FROM (%L) TO (%L)',
+            partition_name, range_start, range_end);
+        RETURN;
+    END IF;
+
+    ALTER TABLE audit_event DETACH PARTITION audit_event_default;
+
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF audit_event FOR VALUES FROM (%L) TO (%L)',
+        partition_name, range_start, range_end);
+
+    INSERT INTO audit_event (id, user_id, event_type, payload, ip, user_agent, created_at)
+    SELECT id, user_id, event_type, payload, ip, user_agent, created_at
+    FROM audit_event_default
+    WHERE created_at >= range_start
+      AND created_at < range_end;
+
+    DELETE FROM audit_event_default
+    WHERE created_at >= range_start
+      AND created_at < range_end;
+
+    ALTER TABLE audit_event ATTACH PARTITION audit_event_default DEFAULT;
+END;
+$$;
+
+ALTER TABLE audit_event RENAME TO audit_event_legacy;
+ALTER TABLE audit_event_legacy RENAME CONSTRAINT audit_event_pkey TO audit_event_legacy_pkey;
+DROP INDEX IF EXISTS idx_audit_event_user_created_at;
+DROP INDEX IF EXISTS idx_audit_event_type_created_at;
+DROP INDEX IF EXISTS idx_audit_event_created_at;
+
+CREATE TABLE audit_event (
+    id BIGINT NOT NULL DEFAULT nextval('audit_event_id_seq'),
+    user_id BIGINT REFERENCES app_user (id) ON DELETE SET NULL,
+    event_type TEXT NOT NULL,
+    payload JSONB NOT NULL DEFAULT '{}'::jsonb,
+    ip INET,
+    user_agent TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE audit_event_id_seq OWNED BY audit_event.id;
+
+-- Catches rows outside the prepared months if the maintenance job has not run yet.
+CREATE TABLE IF NOT EXISTS audit_event_default PARTITION OF audit_event DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at AT TIME ZONE 'America/Santiago'))::date,
+                    date_trunc('month', CURRENT_DATE)::date)
+    INTO month_start
+    FROM audit_event_legacy;
+
+    WHILE month_start <= last_month LOOP
+        PERFORM casero_create_audit_partition(month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO audit_event (id, user_id, event_type, payload, ip, user_agent, created_at)
+SELECT id, user_id, event_type, payload, ip, user_agent, created_at
+FROM audit_event_legacy;
+
+DROP TABLE audit_event_legacy;
+
+CREATE INDEX IF NOT EXISTS idx_audit_event_user_created_at ON audit_event (user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_event_type_created_at ON audit_event (event_type, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_event_created_at ON audit_event (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_event_payload_type_created_at
+    ON audit_event ((payload ->> 'type'), created_at DESC);
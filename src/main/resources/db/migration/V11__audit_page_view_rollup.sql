@@ -0,0 +1,43 @@
+-- Hourly page view counters that replace raw PAGE_VIEW audit rows once they are old enough.
+CREATE TABLE IF NOT EXISTS audit_page_view_hourly (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT REFERENCES app_user (id) ON DELETE SET NULL,
+    hour TIMESTAMPTZ NOT NULL,
+    path TEXT NOT NULL,
+    view_count INTEGER NOT NULL DEFAULT 0
+);
+
+-- Anonymous views are stored with a NULL user; COALESCE lets them share one counter per hour and path.
+CREATE UNIQUE INDEX IF NOT EXISTS ux_audit_page_view_hourly_key
+    ON audit_page_view_hourly ((COALESCE(user_id, 0)), hour, path);
+
+CREATE INDEX IF NOT EXISTS idx_audit_page_view_hourly_hour
+    ON audit_page_view_hourly (hour DESC, id DESC);
+
+-- A plain SET NULL could collide with an existing anonymous counter for the same hour and path,
+-- so the user's counters are folded into the anonymous ones before the user row goes away.
+CREATE OR REPLACE FUNCTION casero_merge_deleted_user_page_views()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO audit_page_view_hourly (user_id, hour, path, view_count)
+    SELECT NULL, hour, path, view_count
+    FROM audit_page_view_hourly
+    WHERE user_id = OLD.id
+    ON CONFLICT ((COALESCE(user_id, 0)), hour, path)
+    DO UPDATE SET view_count = audit_page_view_hourly.view_count + EXCLUDED.view_count;
+
+    DELETE FROM audit_page_view_hourly
+    WHERE user_id = OLD.id;
+
+    RETURN OLD;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_app_user_merge_page_views ON app_user;
+
+CREATE TRIGGER trg_app_user_merge_page_views
+    BEFORE DELETE ON app_user
+    FOR EACH ROW
+    EXECUTE FUNCTION casero_merge_deleted_user_page_views();
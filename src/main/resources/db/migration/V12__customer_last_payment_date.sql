@@ -0,0 +1,18 @@
+ALTER TABLE customer
+ADD COLUMN IF NOT EXISTS last_payment_date DATE;
+
+-- One-shot backfill; from here on TransactionServiceImpl keeps the column current
+UPDATE customer c
+SET last_payment_date = lp.last_payment_date
+FROM (
+    SELECT t.customer_id, MAX(t.date) AS last_payment_date
+    FROM transaction t
+    WHERE t.type = 'PAYMENT'
+    GROUP BY t.customer_id
+) lp
+WHERE lp.customer_id = c.id;
+
+-- Overdue debtors report: a single range scan, with customers that never paid sorting last
+CREATE INDEX IF NOT EXISTS idx_customer_overdue_last_payment
+    ON customer ((COALESCE(last_payment_date, CAST('-infinity' AS date))) DESC, id)
+    WHERE enabled = true AND debt > 0;
@@ -0,0 +1,70 @@
+-- Bumped by every change to the fields the in-memory customer search index holds, so each
+-- instance can tell cheaply whether its copy is stale. A row (not a sequence) keeps the
+-- bump transactional: a reader never sees the new version before the change is visible.
+CREATE TABLE IF NOT EXISTS customer_search_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO customer_search_version (id, version)
+VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION casero_bump_customer_search_version()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE customer_search_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$;
+
+-- The triggers are not created here: they write the version row on customer changes, which
+-- only pays off while the in-memory index is enabled. An instance with the index enabled
+-- calls this with true at startup; an operator can call it with false once no instance
+-- uses the index any more.
+CREATE OR REPLACE PROCEDURE casero_set_customer_search_tracking(enabled BOOLEAN)
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF NOT enabled THEN
+        DROP TRIGGER IF EXISTS trg_customer_search_version_insert_delete ON customer;
+        DROP TRIGGER IF EXISTS trg_customer_search_version_update ON customer;
+        DROP TRIGGER IF EXISTS trg_sector_search_version_update ON sector;
+        RETURN;
+    END IF;
+
+    -- Skip the DDL, and its lock on customer, when an earlier startup already installed them.
+    IF (SELECT COUNT(*) FROM pg_trigger
+        WHERE tgname IN ('trg_customer_search_version_insert_delete',
+                         'trg_customer_search_version_update',
+                         'trg_sector_search_version_update')) = 3 THEN
+        RETURN;
+    END IF;
+
+    CREATE OR REPLACE TRIGGER trg_customer_search_version_insert_delete
+        AFTER INSERT OR DELETE ON customer
+        FOR EACH STATEMENT
+        EXECUTE FUNCTION casero_bump_customer_search_version();
+
+    -- Debt changes on every movement, so only the indexed columns count as a change.
+    CREATE OR REPLACE TRIGGER trg_customer_search_version_update
+        AFTER UPDATE ON customer
+        FOR EACH ROW
+        WHEN (OLD.name IS DISTINCT FROM NEW.name
+              OR OLD.address IS DISTINCT FROM NEW.address
+              OR OLD.sector_id IS DISTINCT FROM NEW.sector_id
+              OR OLD.enabled IS DISTINCT FROM NEW.enabled)
+        EXECUTE FUNCTION casero_bump_customer_search_version();
+
+    CREATE OR REPLACE TRIGGER trg_sector_search_version_update
+        AFTER UPDATE ON sector
+        FOR EACH ROW
+        WHEN (OLD.name IS DISTINCT FROM NEW.name)
+        EXECUTE FUNCTION casero_bump_customer_search_version();
+
+    -- Changes made while the triggers were missing were never counted.
+    UPDATE customer_search_version SET version = version + 1 WHERE id = 1;
+END;
+$$;
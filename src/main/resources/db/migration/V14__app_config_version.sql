@@ -0,0 +1,29 @@
+-- Bumped by every write to app_config so instances can poll one number instead of
+-- comparing MAX(updated_at) and the row count, which misses a delete paired with an insert
+-- and any change that keeps the old timestamp. A row (not a sequence) keeps the bump
+-- transactional, as for customer_search_version. Config writes are rare, so the trigger is
+-- always installed.
+CREATE TABLE IF NOT EXISTS app_config_version (
+    id INTEGER PRIMARY KEY CHECK (id = 1),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO app_config_version (id, version)
+VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION casero_bump_app_config_version()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    UPDATE app_config_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_app_config_version ON app_config;
+CREATE TRIGGER trg_app_config_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON app_config
+    FOR EACH STATEMENT
+    EXECUTE FUNCTION casero_bump_app_config_version();
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS customer_score (
+    customer_id BIGINT PRIMARY KEY,
+    score DOUBLE PRECISION NOT NULL,
+    cycle_count INTEGER NOT NULL DEFAULT 0,
+    calculated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_customer_score_customer FOREIGN KEY (customer_id) REFERENCES customer (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_customer_score_ranking ON customer_score (score DESC, cycle_count DESC);
+
+-- Ascending ranking: score ASC, cycle_count DESC cannot be read from idx_customer_score_ranking
+CREATE INDEX IF NOT EXISTS idx_customer_score_ranking_asc ON customer_score (score ASC, cycle_count DESC);
@@ -0,0 +1,52 @@
+CREATE TABLE IF NOT EXISTS monthly_statistic_rollup (
+    year INTEGER NOT NULL,
+    month INTEGER NOT NULL,
+    finished_cards_count INTEGER NOT NULL DEFAULT 0,
+    new_cards_count INTEGER NOT NULL DEFAULT 0,
+    maintenance_count INTEGER NOT NULL DEFAULT 0,
+    total_items_count INTEGER NOT NULL DEFAULT 0,
+    payments_amount INTEGER NOT NULL DEFAULT 0,
+    sales_amount INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (year, month)
+);
+
+WITH stats AS (
+    SELECT
+        EXTRACT(YEAR FROM s.date)::int AS year,
+        EXTRACT(MONTH FROM s.date)::int AS month,
+        COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'NEW_SALE') AS new_cards_count,
+        COUNT(*) FILTER (WHERE s.type = 'SALE' AND s.sale_type = 'MAINTENANCE') AS maintenance_count,
+        COALESCE(SUM(s.items_count) FILTER (WHERE s.type = 'SALE'), 0) AS total_items_count,
+        COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'PAYMENT'), 0) AS payments_amount,
+        COALESCE(SUM(s.amount) FILTER (WHERE s.type = 'SALE'), 0) AS sales_amount
+    FROM statistic s
+    GROUP BY 1, 2
+),
+finished AS (
+    SELECT
+        EXTRACT(YEAR FROM t.date)::int AS year,
+        EXTRACT(MONTH FROM t.date)::int AS month,
+        COUNT(*) AS finished_cards_count
+    FROM transaction t
+    JOIN customer c ON c.id = t.customer_id
+    WHERE t.balance = 0
+      AND c.enabled = true
+    GROUP BY 1, 2
+)
+INSERT INTO monthly_statistic_rollup (
+    year, month, finished_cards_count, new_cards_count, maintenance_count,
+    total_items_count, payments_amount, sales_amount
+)
+SELECT
+    year,
+    month,
+    COALESCE(f.finished_cards_count, 0),
+    COALESCE(s.new_cards_count, 0),
+    COALESCE(s.maintenance_count, 0),
+    COALESCE(s.total_items_count, 0),
+    COALESCE(s.payments_amount, 0),
+    COALESCE(s.sales_amount, 0)
+FROM stats s
+FULL OUTER JOIN finished f USING (year, month)
+ON CONFLICT (year, month) DO NOTHING;
@@ -0,0 +1,42 @@
+-- Customer history, ranking cycles and per-customer exports: customer_id = ? ORDER BY date, id
+CREATE INDEX IF NOT EXISTS idx_transaction_customer_date_id
+    ON transaction (customer_id, date, id)
+    INCLUDE (type, balance);
+
+-- Latest movement per customer (debt recalculation) and the detail page ordering
+CREATE INDEX IF NOT EXISTS idx_transaction_customer_created_at_id
+    ON transaction (customer_id, created_at DESC, id DESC);
+
+-- Last payment per customer for the overdue debtors report
+CREATE INDEX IF NOT EXISTS idx_transaction_payment_customer_date
+    ON transaction (customer_id, date DESC)
+    WHERE type = 'PAYMENT';
+
+-- Global transaction list keyset: (date, created_at, id) DESC, optionally filtered by type
+CREATE INDEX IF NOT EXISTS idx_transaction_date_created_at_id
+    ON transaction (date DESC, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_type_date_created_at_id
+    ON transaction (type, date DESC, created_at DESC, id DESC);
+
+-- Finished cards per date range
+CREATE INDEX IF NOT EXISTS idx_transaction_finished_date
+    ON transaction (date)
+    WHERE balance = 0;
+
+-- New cards / maintenance counts
+CREATE INDEX IF NOT EXISTS idx_statistic_type_sale_type_date
+    ON statistic (type, sale_type, date);
+
+-- Amount and item sums per type and range, and the (type, amount, date) delete lookup
+CREATE INDEX IF NOT EXISTS idx_statistic_type_date_amount
+    ON statistic (type, date, amount)
+    INCLUDE (items_count);
+
+-- Monthly range aggregates and rollup rebuilds
+CREATE INDEX IF NOT EXISTS idx_statistic_date
+    ON statistic (date);
+
+CREATE INDEX IF NOT EXISTS idx_customer_enabled_debt
+    ON customer (debt)
+    WHERE enabled = true;
@@ -0,0 +1,23 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+
+CREATE OR REPLACE FUNCTION casero_normalize(value TEXT)
+RETURNS TEXT
+LANGUAGE sql
+IMMUTABLE
+PARALLEL SAFE
+AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, COALESCE(value, '')))
+$$;
+
+ALTER TABLE customer
+ADD COLUMN IF NOT EXISTS search_text TEXT
+    GENERATED ALWAYS AS (casero_normalize(name) || ' ' || casero_normalize(address)) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_customer_search_text_trgm
+    ON customer USING GIN (search_text gin_trgm_ops)
+    WHERE enabled = true;
+
+CREATE INDEX IF NOT EXISTS idx_customer_sector_id ON customer (sector_id);
+
+CREATE INDEX IF NOT EXISTS idx_sector_name_trgm
+    ON sector USING GIN (casero_normalize(name) gin_trgm_ops);
@@ -0,0 +1,89 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.AppUser;
+import cl.casero.migration.domain.enums.UserRole;
+import cl.casero.migration.service.impl.AppUserServiceImpl;
+import cl.casero.migration.support.PostgresTest;
+import cl.casero.migration.util.PinHasher;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login lookups are served from the second-level cache, and a PIN change evicts the old
+ * fingerprint. Each step commits in its own transaction, as requests do, because the
+ * cache is only updated on commit.
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppUserCacheTest {
+
+    private static final String OLD_PIN = "90817263";
+    private static final String NEW_PIN = "36271809";
+
+    @Autowired
+    private AppUserRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final PinHasher pinHasher = new PinHasher();
+
+    private AppUserServiceImpl service;
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        service = new AppUserServiceImpl(pinHasher, repository);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+        userId = transactionTemplate.execute(status -> service.create("Cache", UserRole.NORMAL, OLD_PIN).getId());
+    }
+
+    @AfterEach
+    void deleteUser() {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteById(userId));
+    }
+
+    @Test
+    void repeatedLoginLookupSkipsTheDatabase() {
+        assertThat(lookup(OLD_PIN)).isPresent();
+
+        statistics.clear();
+        Optional<AppUser> cached = lookup(OLD_PIN);
+
+        assertThat(cached).map(AppUser::getId).contains(userId);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isPositive();
+    }
+
+    @Test
+    void pinChangeEvictsTheOldFingerprint() {
+        assertThat(lookup(OLD_PIN)).isPresent();
+
+        transactionTemplate.executeWithoutResult(status -> service.updatePin(userId, NEW_PIN));
+
+        assertThat(lookup(OLD_PIN)).isEmpty();
+        assertThat(lookup(NEW_PIN)).hasValueSatisfying(user ->
+                assertThat(pinHasher.matches(NEW_PIN, user.getPinSalt(), user.getPinHash())).isTrue());
+    }
+
+    private Optional<AppUser> lookup(String pin) {
+        return transactionTemplate.execute(status -> service.findByPinFingerprint(pinHasher.fingerprint(pin)));
+    }
+}
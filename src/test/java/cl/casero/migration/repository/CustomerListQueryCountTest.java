@@ -0,0 +1,129 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.domain.Transaction;
+import cl.casero.migration.support.PostgresTest;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list pages against N+1 selects: every page costs the same number of JDBC
+ * statements whatever its size, counted with Hibernate statistics on a cold session and
+ * an empty second-level cache.
+ */
+@PostgresTest
+class CustomerListQueryCountTest {
+
+    private static final int CUSTOMERS = 120;
+    private static final int TRANSACTIONS = 60;
+    private static final List<Integer> PAGE_SIZES = List.of(5, 20, 50);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    private long customerId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO customer (name, sector_id, address, debt, enabled)
+                SELECT 'Lista ' || g,
+                       sectors.ids[1 + g % cardinality(sectors.ids)],
+                       'Calle ' || g,
+                       g * 1000,
+                       true
+                FROM generate_series(1, ?) AS g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM sector) AS sectors
+                """, CUSTOMERS);
+        customerId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM customer WHERE name LIKE 'Lista %'", Long.class);
+        jdbcTemplate.update("""
+                INSERT INTO transaction (customer_id, date, detail, amount, balance, type)
+                SELECT ?, DATE '2024-01-01' + g, 'Movimiento ' || g, 1000, 1000 * g, 'SALE'
+                FROM generate_series(1, ?) AS g
+                """, customerId, TRANSACTIONS);
+    }
+
+    @Test
+    void debtorsPageRunsContentAndCountOnly() {
+        assertStatementsPerPage(2, pageable -> customerRepository.findAllByEnabledTrueOrderByDebtDesc(pageable));
+    }
+
+    @Test
+    void bestCustomersPageRunsContentAndCountOnly() {
+        assertStatementsPerPage(2, pageable -> customerRepository.findAllByEnabledTrueOrderByDebtAsc(pageable));
+    }
+
+    // The native search cannot carry an entity graph, so its sectors arrive in one batch fetch.
+    @Test
+    void customerSearchPageBatchFetchesSectors() {
+        assertStatementsPerPage(3, pageable -> customerRepository.search("lista", pageable));
+    }
+
+    // One extra select for the page's single customer, which joins its sector.
+    @Test
+    void customerTransactionsPageLoadsTheCustomerOnce() {
+        assertStatementsPerPage(3, pageable -> transactionRepository.findVisibleByCustomerId(
+                customerId, PageRequest.of(0, pageable.getPageSize(), Sort.by(Sort.Order.desc("date")))));
+    }
+
+    @Test
+    void transactionFeedIsASingleProjection() {
+        assertStatementsPerPage(1, pageable -> transactionRepository.findVisibleFeed(pageable));
+    }
+
+    private void assertStatementsPerPage(long expected, Function<Pageable, ?> page) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int size : PAGE_SIZES) {
+            entityManager.clear();
+            entityManagerFactory.getCache().evictAll();
+            statistics.clear();
+
+            Object result = page.apply(PageRequest.of(0, size));
+            touchAssociations(result);
+
+            assertThat(statistics.getPrepareStatementCount())
+                    .as("statements for a page of %d", size)
+                    .isEqualTo(expected);
+        }
+    }
+
+    private static void touchAssociations(Object result) {
+        List<?> rows = result instanceof Page<?> page ? page.getContent() : (List<?>) result;
+        assertThat(rows).isNotEmpty();
+        for (Object row : rows) {
+            if (row instanceof Customer customer) {
+                assertThat(customer.getSector().getName()).isNotBlank();
+            } else if (row instanceof Transaction transaction) {
+                assertThat(transaction.getCustomer().getSector().getName()).isNotBlank();
+            }
+        }
+    }
+}
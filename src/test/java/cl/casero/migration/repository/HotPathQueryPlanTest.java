@@ -0,0 +1,268 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.domain.enums.TransactionType;
+import cl.casero.migration.support.PostgresTest;
+import cl.casero.migration.support.StatementCapture;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the statements the hot-path repository methods actually send,
+ * with their real parameters, against tables seeded large enough that a missing index
+ * shows up as a sequential scan. A failure here means a query or an index in V6, V8 or
+ * V12 drifted apart.
+ */
+@PostgresTest
+@Import(StatementCapture.Config.class)
+class HotPathQueryPlanTest {
+
+    // Customer is left out on purpose: hashing every enabled customer for a join is a
+    // reasonable plan, and the customer-driven queries assert their index by name instead.
+    private static final Set<String> LARGE_TABLES = Set.of("transaction", "statistic", "customer_score");
+    private static final int CUSTOMERS = 5_000;
+    private static final int TRANSACTIONS = 150_000;
+    private static final int STATISTICS = 150_000;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private StatisticRepository statisticRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerScoreRepository customerScoreRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long customerId;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO customer (name, sector_id, address, debt, enabled, last_payment_date)
+                SELECT 'Plan ' || g,
+                       sectors.ids[1 + g % cardinality(sectors.ids)],
+                       'Calle ' || g,
+                       CASE WHEN g % 3 = 0 THEN 0 ELSE g % 50000 END,
+                       g % 50 <> 0,
+                       CASE WHEN g % 7 = 0 THEN NULL ELSE DATE '2020-01-01' + g % 1800 END
+                FROM generate_series(1, ?) AS g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM sector) AS sectors
+                """, CUSTOMERS);
+        jdbcTemplate.update("""
+                INSERT INTO transaction (customer_id, date, detail, amount, balance, type, created_at)
+                SELECT customers.ids[1 + g % cardinality(customers.ids)],
+                       DATE '2020-01-01' + g % 1800,
+                       'Movimiento ' || g,
+                       1000 + g % 9000,
+                       CASE WHEN g % 10 = 0 THEN 0 ELSE g % 40000 END,
+                       (ARRAY['SALE', 'PAYMENT', 'PAYMENT', 'REFUND', 'DEBT_FORGIVENESS', 'FAULT_DISCOUNT'])[1 + g % 6],
+                       TIMESTAMPTZ '2020-01-01 00:00:00-03' + g * INTERVAL '6 minutes'
+                FROM generate_series(1, ?) AS g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM customer WHERE name LIKE 'Plan %') AS customers
+                """, TRANSACTIONS);
+        jdbcTemplate.update("""
+                INSERT INTO statistic (type, amount, sale_type, items_count, date)
+                SELECT CASE WHEN g % 2 = 0 THEN 'SALE' ELSE 'PAYMENT' END,
+                       1000 + g % 9000,
+                       CASE WHEN g % 2 = 0 THEN (ARRAY['NEW_SALE', 'MAINTENANCE'])[1 + g % 4 / 2] END,
+                       CASE WHEN g % 2 = 0 THEN 1 + g % 5 END,
+                       DATE '2020-01-01' + g % 1800
+                FROM generate_series(1, ?) AS g
+                """, STATISTICS);
+        jdbcTemplate.update("""
+                INSERT INTO customer_score (customer_id, score, cycle_count)
+                SELECT id, (id % 1000) / 10.0, (id % 7)::int
+                FROM customer
+                WHERE name LIKE 'Plan %'
+                """);
+        jdbcTemplate.execute("ANALYZE customer, transaction, statistic, customer_score");
+        customerId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM customer WHERE name LIKE 'Plan %' AND enabled = true", Long.class);
+    }
+
+    @Test
+    void migrationsCreateTheHotPathIndexes() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class);
+
+        assertThat(indexes).contains(
+                "idx_transaction_customer_date_id",
+                "idx_transaction_customer_created_at_id",
+                "idx_transaction_payment_customer_date",
+                "idx_transaction_date_created_at_id",
+                "idx_transaction_type_date_created_at_id",
+                "idx_transaction_finished_date",
+                "idx_statistic_type_sale_type_date",
+                "idx_statistic_type_date_amount",
+                "idx_statistic_date",
+                "idx_customer_enabled_debt",
+                "idx_customer_overdue_last_payment",
+                "idx_customer_search_text_trgm",
+                "idx_customer_sector_id",
+                "idx_customer_score_ranking",
+                "idx_customer_score_ranking_asc");
+    }
+
+    @Test
+    void customerTransactionsPageUsesAnIndex() {
+        assertNoSequentialScan(() -> transactionRepository.findVisibleByCustomerId(
+                customerId, PageRequest.of(0, 20, Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id")))));
+    }
+
+    @Test
+    void latestTransactionUsesTheCreatedAtIndex() {
+        assertUsesIndex("idx_transaction_customer_created_at_id",
+                () -> transactionRepository.findLatestVisibleByCustomerId(customerId, PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void historyPagesSeekOnTheCreatedAtIndex() {
+        OffsetDateTime createdAt = OffsetDateTime.parse("2022-06-01T00:00:00-04:00");
+        assertUsesIndex("idx_transaction_customer_created_at_id",
+                () -> transactionRepository.findVisibleHistoryDesc(customerId, PageRequest.of(0, 21)));
+        assertUsesIndex("idx_transaction_customer_created_at_id",
+                () -> transactionRepository.findVisibleHistoryDescAfter(customerId, createdAt, Long.MAX_VALUE, PageRequest.of(0, 21)));
+        assertUsesIndex("idx_transaction_customer_created_at_id",
+                () -> transactionRepository.findVisibleHistoryAscAfter(customerId, createdAt, 0L, PageRequest.of(0, 21)));
+    }
+
+    @Test
+    void transactionFeedSeeksOnTheFeedIndexes() {
+        LocalDate date = FIRST_DAY.plusDays(900);
+        OffsetDateTime createdAt = OffsetDateTime.parse("2022-06-01T00:00:00-04:00");
+        assertUsesIndex("idx_transaction_date_created_at_id",
+                () -> transactionRepository.findVisibleFeed(PageRequest.of(0, 21)));
+        assertUsesIndex("idx_transaction_date_created_at_id",
+                () -> transactionRepository.findVisibleFeedAfter(date, createdAt, Long.MAX_VALUE, PageRequest.of(0, 21)));
+        assertUsesIndex("idx_transaction_type_date_created_at_id",
+                () -> transactionRepository.findVisibleFeedByType(TransactionType.REFUND, PageRequest.of(0, 21)));
+        assertUsesIndex("idx_transaction_type_date_created_at_id",
+                () -> transactionRepository.findVisibleFeedByTypeAfter(
+                        TransactionType.REFUND, date, createdAt, Long.MAX_VALUE, PageRequest.of(0, 21)));
+    }
+
+    @Test
+    void cycleStatsAndLedgerVersionsUseAnIndex() {
+        Long[] ids = jdbcTemplate.queryForList(
+                "SELECT id FROM customer WHERE name LIKE 'Plan %' ORDER BY id LIMIT 50", Long.class).toArray(Long[]::new);
+        assertNoSequentialScan(() -> transactionRepository.findCustomerCycleStats(ids));
+        assertNoSequentialScan(() -> transactionRepository.findLedgerVersions(ids));
+    }
+
+    @Test
+    void reportRowsUseAnIndexForEveryFilterCombination() {
+        LocalDate fromDate = FIRST_DAY.plusDays(1500);
+        assertNoSequentialScan(() -> consume(transactionRepository.streamReportRows(customerId, null, null)));
+        assertNoSequentialScan(() -> consume(transactionRepository.streamReportRows(customerId, fromDate, TransactionType.PAYMENT)));
+        assertNoSequentialScan(() -> transactionRepository.countReportRows(customerId, fromDate, null));
+    }
+
+    @Test
+    void overdueDebtorsReadTheOverdueIndex() {
+        assertUsesIndex("idx_customer_overdue_last_payment",
+                () -> customerRepository.findOverdueCustomers(PageRequest.of(0, 20), 3));
+    }
+
+    // Both ranking indexes lead on score, so either one read forwards or backwards serves
+    // either direction; what matters is that the page never sorts the whole table.
+    @Test
+    void rankingPagesReadARankingIndexWithoutAFullSort() {
+        assertRankingPlan(() -> customerScoreRepository.findRankingDesc(PageRequest.of(0, 20)));
+        assertRankingPlan(() -> customerScoreRepository.findRankingAsc(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void monthlyStatisticsAndDeleteLookupUseTheStatisticIndexes() {
+        LocalDate start = FIRST_DAY.plusMonths(30);
+        assertNoSequentialScan(() -> statisticRepository.summarizeBetween(start, start.plusMonths(1).minusDays(1)));
+        assertUsesIndex("idx_statistic_type_date_amount",
+                () -> statisticRepository.deleteByTypeAndAmountAndDate(TransactionType.SALE, 1234, start));
+    }
+
+    private void assertUsesIndex(String indexName, Runnable query) {
+        List<JsonNode> nodes = planNodes(query);
+        assertNoSequentialScan(nodes);
+        assertThat(nodes)
+                .as("plan nodes")
+                .anySatisfy(node -> assertThat(node.path("Index Name").asText()).isEqualTo(indexName));
+    }
+
+    private void assertRankingPlan(Runnable query) {
+        List<JsonNode> nodes = planNodes(query);
+        assertNoSequentialScan(nodes);
+        assertThat(nodes)
+                .as("plan nodes")
+                .anySatisfy(node -> assertThat(node.path("Index Name").asText()).startsWith("idx_customer_score_ranking"))
+                .noneSatisfy(node -> assertThat(node.path("Node Type").asText()).isEqualTo("Sort"));
+    }
+
+    private void assertNoSequentialScan(Runnable query) {
+        assertNoSequentialScan(planNodes(query));
+    }
+
+    private static void assertNoSequentialScan(List<JsonNode> nodes) {
+        assertThat(nodes)
+                .as("plan nodes")
+                .noneSatisfy(node -> {
+                    assertThat(node.path("Node Type").asText()).isEqualTo("Seq Scan");
+                    assertThat(LARGE_TABLES).contains(node.path("Relation Name").asText());
+                });
+    }
+
+    // The first statement is the content query; Spring Data may follow it with a count.
+    private List<JsonNode> planNodes(Runnable query) {
+        List<StatementCapture.CapturedStatement> statements = statementCapture.record(query);
+        assertThat(statements).isNotEmpty();
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) statements.get(0)::explain);
+
+        List<JsonNode> nodes = new ArrayList<>();
+        try {
+            collect(objectMapper.readTree(plan).get(0).get("Plan"), nodes);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Unreadable plan: " + plan, ex);
+        }
+        return nodes;
+    }
+
+    private static void collect(JsonNode node, List<JsonNode> nodes) {
+        nodes.add(node);
+        for (JsonNode child : node.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+
+    private static void consume(Stream<?> rows) {
+        try (rows) {
+            rows.forEach(row -> {
+            });
+        }
+    }
+}
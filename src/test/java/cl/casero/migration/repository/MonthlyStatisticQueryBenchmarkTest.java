@@ -0,0 +1,142 @@
+package cl.casero.migration.repository;
+
+import cl.casero.migration.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares {@link StatisticRepository#summarizeBetween} with the six per-field aggregate
+ * round-trips it replaced, on a few million seeded statistic rows. Both paths must agree;
+ * the median time of each is printed for a one-month and a one-year range.
+ */
+@Tag("benchmark")
+@PostgresTest
+class MonthlyStatisticQueryBenchmarkTest {
+
+    private static final int STATISTICS = 3_000_000;
+    private static final int TRANSACTIONS = 500_000;
+    private static final int CUSTOMERS = 2_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 15;
+
+    // The queries behind the removed countByTypeAndSaleType, sumItemsByType, sumAmountByType
+    // and countFinishedCards finders, one round-trip each.
+    private static final String COUNT_BY_SALE_TYPE = """
+            SELECT COUNT(*) FROM statistic s
+            WHERE s.type = 'SALE' AND s.sale_type = ? AND s.date BETWEEN ? AND ?
+            """;
+    private static final String SUM_ITEMS = """
+            SELECT COALESCE(SUM(s.items_count), 0) FROM statistic s
+            WHERE s.type = 'SALE' AND s.date BETWEEN ? AND ?
+            """;
+    private static final String SUM_AMOUNT = """
+            SELECT COALESCE(SUM(s.amount), 0) FROM statistic s
+            WHERE s.type = ? AND s.date BETWEEN ? AND ?
+            """;
+    private static final String COUNT_FINISHED_CARDS = """
+            SELECT COUNT(*) FROM transaction t
+            JOIN customer c ON c.id = t.customer_id
+            WHERE t.balance = 0 AND c.enabled = true AND t.date BETWEEN ? AND ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatisticRepository statisticRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO statistic (type, amount, sale_type, items_count, date)
+                SELECT CASE WHEN g % 2 = 0 THEN 'SALE' ELSE 'PAYMENT' END,
+                       1000 + g % 9000,
+                       CASE WHEN g % 2 = 0 THEN (ARRAY['NEW_SALE', 'MAINTENANCE'])[1 + g % 4 / 2] END,
+                       CASE WHEN g % 2 = 0 THEN 1 + g % 5 END,
+                       DATE '2020-01-01' + g % 1825
+                FROM generate_series(1, ?) AS g
+                """, STATISTICS);
+        jdbcTemplate.update("""
+                INSERT INTO customer (name, sector_id, address, debt, enabled)
+                SELECT 'Bench ' || g, sectors.ids[1 + g % cardinality(sectors.ids)], 'Calle ' || g, 0, g % 20 <> 0
+                FROM generate_series(1, ?) AS g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM sector) AS sectors
+                """, CUSTOMERS);
+        jdbcTemplate.update("""
+                INSERT INTO transaction (customer_id, date, detail, amount, balance, type)
+                SELECT customers.ids[1 + g % cardinality(customers.ids)],
+                       DATE '2020-01-01' + g % 1825,
+                       'Movimiento ' || g,
+                       1000,
+                       CASE WHEN g % 8 = 0 THEN 0 ELSE g % 40000 END,
+                       CASE WHEN g % 2 = 0 THEN 'SALE' ELSE 'PAYMENT' END
+                FROM generate_series(1, ?) AS g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM customer WHERE name LIKE 'Bench %') AS customers
+                """, TRANSACTIONS);
+        jdbcTemplate.execute("ANALYZE statistic, transaction, customer");
+    }
+
+    @Test
+    void singleScanMatchesAndIsComparedWithSixRoundTrips() {
+        LocalDate month = LocalDate.of(2022, 3, 1);
+        compare("one month", month, month.plusMonths(1).minusDays(1));
+        compare("one year", month, month.plusYears(1).minusDays(1));
+    }
+
+    private void compare(String label, LocalDate start, LocalDate end) {
+        List<Long> single = summarize(start, end);
+        List<Long> perField = summarizePerField(start, end);
+        assertThat(single).as(label).isEqualTo(perField);
+        assertThat(single.get(1)).as("new cards in %s", label).isPositive();
+
+        double singleMs = medianMillis(() -> summarize(start, end));
+        double perFieldMs = medianMillis(() -> summarizePerField(start, end));
+        System.out.printf("monthly statistic, %s: summarizeBetween %.2f ms, six queries %.2f ms%n",
+                label, singleMs, perFieldMs);
+    }
+
+    private List<Long> summarize(LocalDate start, LocalDate end) {
+        StatisticRepository.MonthlyStatisticView view = statisticRepository.summarizeBetween(start, end);
+        return List.of(
+                view.getFinishedCardsCount(),
+                view.getNewCardsCount(),
+                view.getMaintenanceCount(),
+                view.getTotalItemsCount(),
+                view.getPaymentsAmount(),
+                view.getSalesAmount());
+    }
+
+    private List<Long> summarizePerField(LocalDate start, LocalDate end) {
+        return List.of(
+                jdbcTemplate.queryForObject(COUNT_FINISHED_CARDS, Long.class, start, end),
+                jdbcTemplate.queryForObject(COUNT_BY_SALE_TYPE, Long.class, "NEW_SALE", start, end),
+                jdbcTemplate.queryForObject(COUNT_BY_SALE_TYPE, Long.class, "MAINTENANCE", start, end),
+                jdbcTemplate.queryForObject(SUM_ITEMS, Long.class, start, end),
+                jdbcTemplate.queryForObject(SUM_AMOUNT, Long.class, "PAYMENT", start, end),
+                jdbcTemplate.queryForObject(SUM_AMOUNT, Long.class, "SALE", start, end));
+    }
+
+    private static double medianMillis(Supplier<?> run) {
+        for (int i = 0; i < WARMUP; i++) {
+            run.get();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long started = System.nanoTime();
+            run.get();
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2] / 1_000_000.0;
+    }
+}
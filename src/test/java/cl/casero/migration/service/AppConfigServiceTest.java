@@ -0,0 +1,48 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.repository.AppConfigRepository;
+import cl.casero.migration.service.impl.AppConfigServiceImpl;
+import cl.casero.migration.support.PostgresTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@PostgresTest
+class AppConfigServiceTest {
+
+    @Autowired
+    private AppConfigRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void everyWriteBumpsTheVersion() {
+        long before = repository.findVersion();
+
+        jdbcTemplate.update("INSERT INTO app_config (config_key, value) VALUES ('test.key', 'a')");
+        jdbcTemplate.update("UPDATE app_config SET value = 'b' WHERE config_key = 'test.key'");
+        jdbcTemplate.update("DELETE FROM app_config WHERE config_key = 'test.key'");
+
+        assertThat(repository.findVersion()).isEqualTo(before + 3);
+    }
+
+    // The previous MAX(updated_at) and row count snapshot could not see this change.
+    @Test
+    void refreshPicksUpAChangeThatKeepsTheTimestamp() {
+        AppConfigServiceImpl service = new AppConfigServiceImpl(repository, new ObjectMapper());
+        jdbcTemplate.update("UPDATE app_config SET value = 'true' WHERE config_key = 'audit.logging.enabled'");
+        assertThat(service.isAuditEnabled()).isTrue();
+
+        jdbcTemplate.update("""
+                UPDATE app_config SET value = 'false', updated_at = updated_at
+                WHERE config_key = 'audit.logging.enabled'
+                """);
+        service.refreshIfChanged();
+
+        assertThat(service.isAuditEnabled()).isFalse();
+    }
+}
@@ -0,0 +1,135 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCycleStatsEngineTest {
+
+    private static final boolean PAYMENT = true;
+    private static final boolean SALE = false;
+
+    @Test
+    void splitsCyclesOnTheMovementThatLeavesTheBalanceAtZero() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 1L, "2024-01-05", SALE, 100);
+        accept(accumulator, 1L, "2024-01-20", PAYMENT, 0);
+        accept(accumulator, 1L, "2024-02-03", SALE, 50);
+
+        List<TransactionRepository.CustomerCycleProjection> cycles = accumulator.finish();
+
+        assertThat(cycles).containsExactly(
+                new CustomerCycleStatsEngine.CycleStats(
+                        1L, 0, date("2024-01-05"), date("2024-01-20"), date("2024-01-20"),
+                        1, null, 0L, 0, 0, 1L, 1, false),
+                new CustomerCycleStatsEngine.CycleStats(
+                        1L, 1, date("2024-02-03"), date("2024-02-03"), null,
+                        0, null, null, null, null, null, 1, true));
+    }
+
+    @Test
+    void singlePaymentCycleHasNoIntervals() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 7L, "2024-03-01", SALE, 30000);
+        accept(accumulator, 7L, "2024-03-15", PAYMENT, 20000);
+
+        TransactionRepository.CustomerCycleProjection cycle = accumulator.finish().get(0);
+
+        assertThat(cycle.getTotalPayments()).isEqualTo(1);
+        assertThat(cycle.getLastPaymentDate()).isEqualTo(date("2024-03-15"));
+        assertThat(cycle.getMaxIntervalBetweenPayments()).isNull();
+        assertThat(cycle.getTotalIntervalDays()).isZero();
+        assertThat(cycle.getIntervalCount()).isZero();
+        assertThat(cycle.getLateIntervalCount()).isZero();
+        assertThat(cycle.getHasOutstandingDebt()).isTrue();
+    }
+
+    @Test
+    void countsIntervalsLatePaymentsAndDistinctPaymentMonths() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 3L, "2023-11-10", SALE, 90000);
+        accept(accumulator, 3L, "2023-12-01", PAYMENT, 70000);
+        accept(accumulator, 3L, "2023-12-31", PAYMENT, 50000);
+        accept(accumulator, 3L, "2024-01-02", SALE, 60000);
+        accept(accumulator, 3L, "2024-02-17", PAYMENT, 30000);
+
+        TransactionRepository.CustomerCycleProjection cycle = accumulator.finish().get(0);
+
+        // Intervals: 30 days (Dec 1 -> Dec 31) and 48 days (Dec 31 -> Feb 17), the latter over 45.
+        assertThat(cycle.getTotalPayments()).isEqualTo(3);
+        assertThat(cycle.getMaxIntervalBetweenPayments()).isEqualTo(48);
+        assertThat(cycle.getTotalIntervalDays()).isEqualTo(78L);
+        assertThat(cycle.getIntervalCount()).isEqualTo(2);
+        assertThat(cycle.getLateIntervalCount()).isEqualTo(1);
+        // December twice and February once.
+        assertThat(cycle.getPaymentMonthCount()).isEqualTo(2L);
+        // November 2023 through February 2024.
+        assertThat(cycle.getCycleMonthCount()).isEqualTo(4);
+        assertThat(cycle.getCycleStartDate()).isEqualTo(date("2023-11-10"));
+        assertThat(cycle.getCycleEndDate()).isEqualTo(date("2024-02-17"));
+    }
+
+    @Test
+    void nonSalePaymentTypesCountAsPaymentsAndIntervalsRestartEachCycle() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 5L, "2024-01-01", SALE, 10000);
+        accept(accumulator, 5L, "2024-01-10", PAYMENT, 5000);
+        accept(accumulator, 5L, "2024-04-10", PAYMENT, 0);
+        accept(accumulator, 5L, "2024-05-01", SALE, 8000);
+        accept(accumulator, 5L, "2024-05-02", PAYMENT, 4000);
+
+        List<TransactionRepository.CustomerCycleProjection> cycles = accumulator.finish();
+
+        assertThat(cycles).hasSize(2);
+        assertThat(cycles.get(0).getMaxIntervalBetweenPayments()).isEqualTo(91);
+        assertThat(cycles.get(0).getLateIntervalCount()).isEqualTo(1);
+        assertThat(cycles.get(0).getHasOutstandingDebt()).isFalse();
+        assertThat(cycles.get(1).getCycleGroup()).isEqualTo(1);
+        assertThat(cycles.get(1).getTotalPayments()).isEqualTo(1);
+        assertThat(cycles.get(1).getIntervalCount()).isZero();
+        assertThat(cycles.get(1).getHasOutstandingDebt()).isTrue();
+    }
+
+    @Test
+    void restartsCycleNumberingForEachCustomer() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 1L, "2024-01-01", SALE, 1000);
+        accept(accumulator, 1L, "2024-01-02", PAYMENT, 0);
+        accept(accumulator, 2L, "2024-01-01", SALE, 2000);
+
+        List<TransactionRepository.CustomerCycleProjection> cycles = accumulator.finish();
+
+        assertThat(cycles).extracting(TransactionRepository.CustomerCycleProjection::getCustomerId)
+                .containsExactly(1L, 2L);
+        assertThat(cycles).extracting(TransactionRepository.CustomerCycleProjection::getCycleGroup)
+                .containsExactly(0, 0);
+        assertThat(cycles.get(1).getHasOutstandingDebt()).isTrue();
+    }
+
+    @Test
+    void customerWhoseLastMovementClosesTheCycleHasNoOpenCycle() {
+        CustomerCycleStatsEngine.Accumulator accumulator = new CustomerCycleStatsEngine.Accumulator();
+        accept(accumulator, 4L, "2024-06-01", SALE, 500);
+        accept(accumulator, 4L, "2024-06-02", PAYMENT, 0);
+
+        assertThat(accumulator.finish()).hasSize(1);
+    }
+
+    private static void accept(
+        CustomerCycleStatsEngine.Accumulator accumulator,
+        long customerId,
+        String date,
+        boolean payment,
+        int balance
+    ) {
+        accumulator.accept(customerId, date(date).toEpochDay(), payment, balance);
+    }
+
+    private static LocalDate date(String value) {
+        return LocalDate.parse(value);
+    }
+}
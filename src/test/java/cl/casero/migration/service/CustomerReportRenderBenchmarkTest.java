@@ -0,0 +1,114 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.domain.enums.TransactionType;
+import cl.casero.migration.repository.TransactionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Renders transactions reports from a mocked repository and prints the median render time
+ * and the bytes allocated by the rendering thread per 1k rows, for a typical and a long
+ * customer history.
+ */
+@Tag("benchmark")
+class CustomerReportRenderBenchmarkTest {
+
+    private static final List<Integer> ROW_COUNTS = List.of(2_000, 20_000);
+    private static final int WARMUP = 10;
+    private static final int ITERATIONS = 15;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void renderCostPerThousandRows() {
+        for (int rows : ROW_COUNTS) {
+            CustomerReportService service = new CustomerReportService(repositoryWith(rows));
+            Customer customer = customer();
+
+            for (int i = 0; i < WARMUP; i++) {
+                render(service, customer);
+            }
+
+            long[] nanos = new long[ITERATIONS];
+            long[] allocated = new long[ITERATIONS];
+            int size = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                size = render(service, customer);
+                nanos[i] = System.nanoTime() - start;
+                allocated[i] = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+            }
+
+            assertThat(size).isPositive();
+            double perThousand = 1000.0 / rows;
+            System.out.printf("report of %,d rows: %.2f ms and %,.0f KiB allocated per 1k rows (%,d bytes of PDF)%n",
+                    rows, median(nanos) / 1e6 * perThousand, median(allocated) / 1024.0 * perThousand, size);
+        }
+    }
+
+    private static int render(CustomerReportService service, Customer customer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeTransactionsReport(customer, null, "Todas las transacciones", null, out);
+        return out.size();
+    }
+
+    private static TransactionRepository repositoryWith(int rows) {
+        TransactionRepository repository = mock(TransactionRepository.class);
+        when(repository.countReportRows(eq(1L), any(), any())).thenReturn((long) rows);
+        when(repository.streamReportRows(eq(1L), any(), any()))
+                .thenAnswer(invocation -> rowStream(rows));
+        return repository;
+    }
+
+    private static Stream<TransactionRepository.ReportRowView> rowStream(int rows) {
+        LocalDate first = LocalDate.of(2015, 1, 1);
+        return IntStream.range(0, rows).mapToObj(i -> new Row(
+                first.plusDays(i / 3),
+                TYPES[i % TYPES.length],
+                "Movimiento " + i,
+                1000 + i % 50 * 500,
+                i % 200 * 1000));
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setName("Cliente Benchmark");
+        customer.setAddress("Calle Larga 123");
+        customer.setDebt(250000);
+        return customer;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private record Row(
+        LocalDate getDate,
+        TransactionType getType,
+        String getDetail,
+        Integer getAmount,
+        Integer getBalance
+    ) implements TransactionRepository.ReportRowView {
+    }
+}
@@ -0,0 +1,123 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Times {@link CustomerScoreBatchEvaluator#evaluate} in sequential and parallel mode on
+ * 10k, 100k and 1M customers whose cycle statistics come from a mocked loader. Both modes
+ * must produce the same scores; the median time of each is printed.
+ */
+@Tag("benchmark")
+class CustomerScoreBatchEvaluatorBenchmarkTest {
+
+    private static final List<Integer> POPULATIONS = List.of(10_000, 100_000, 1_000_000);
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 7;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Test
+    void sequentialAgainstParallel() {
+        for (int population : POPULATIONS) {
+            List<Customer> customers = new ArrayList<>(population);
+            Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats = new HashMap<>();
+            List<List<TransactionRepository.CustomerCycleProjection>> histories = histories();
+            for (long id = 1; id <= population; id++) {
+                Customer customer = new Customer();
+                customer.setId(id);
+                customer.setDebt(id % 3 == 0 ? 15000 : 0);
+                customers.add(customer);
+                List<TransactionRepository.CustomerCycleProjection> cycles = histories.get((int) (id % histories.size()));
+                if (!cycles.isEmpty()) {
+                    stats.put(id, cycles);
+                }
+            }
+
+            CustomerScoreBatchEvaluator sequential = evaluator(stats, false);
+            CustomerScoreBatchEvaluator parallel = evaluator(stats, true);
+            try {
+                // Warm both modes first, so neither pays for the other's JIT compilation.
+                for (int i = 0; i < WARMUP; i++) {
+                    sequential.evaluate(customers);
+                    parallel.evaluate(customers);
+                }
+                Measurement sequentialRun = measure(sequential, customers);
+                Measurement parallelRun = measure(parallel, customers);
+
+                assertThat(parallelRun.batch().scores()).isEqualTo(sequentialRun.batch().scores());
+                assertThat(parallelRun.batch().cycleCounts()).isEqualTo(sequentialRun.batch().cycleCounts());
+                System.out.printf("%,d customers: sequential %.1f ms, parallel %.1f ms (%.1fx on %d cores)%n",
+                        population, sequentialRun.medianNanos() / 1e6, parallelRun.medianNanos() / 1e6,
+                        (double) sequentialRun.medianNanos() / parallelRun.medianNanos(),
+                        Runtime.getRuntime().availableProcessors());
+            } finally {
+                sequential.shutdown();
+                parallel.shutdown();
+            }
+        }
+    }
+
+    private static Measurement measure(CustomerScoreBatchEvaluator evaluator, List<Customer> customers) {
+        long[] nanos = new long[ITERATIONS];
+        CustomerScoreBatchEvaluator.BatchScores batch = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            batch = evaluator.evaluate(customers);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        return new Measurement(batch, nanos[nanos.length / 2]);
+    }
+
+    /**
+     * A few dozen cycle histories shared by every customer with the same id modulo their
+     * count, so a million customers do not need a million fixtures. An empty history
+     * exercises the no-cycle fallback.
+     */
+    private static List<List<TransactionRepository.CustomerCycleProjection>> histories() {
+        List<List<TransactionRepository.CustomerCycleProjection>> histories = new ArrayList<>();
+        histories.add(List.of());
+        for (int offset = 0; offset < 40; offset++) {
+            List<TransactionRepository.CustomerCycleProjection> cycles = new ArrayList<>();
+            for (int cycle = 0; cycle <= offset % 4; cycle++) {
+                int age = 700 - cycle * 150;
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        0L, cycle, TODAY.minusDays(age), TODAY.minusDays(age - 100 - offset),
+                        TODAY.minusDays(age - 90 - offset), 3 + offset % 5, 20 + offset, 60L + offset,
+                        2 + offset % 5, offset % 3, 3L, 4, cycle == offset % 4));
+            }
+            histories.add(cycles);
+        }
+        return histories;
+    }
+
+    private static CustomerScoreBatchEvaluator evaluator(
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats,
+        boolean parallel
+    ) {
+        // Stub-only, so the mock does not keep every million-id argument it is called with.
+        CustomerCycleStatsLoader loader = mock(CustomerCycleStatsLoader.class, withSettings().stubOnly());
+        when(loader.load(any())).thenReturn(stats);
+        return new CustomerScoreBatchEvaluator(loader, new SimpleMeterRegistry(), parallel, 0);
+    }
+
+    private record Measurement(CustomerScoreBatchEvaluator.BatchScores batch, long medianNanos) {
+    }
+}
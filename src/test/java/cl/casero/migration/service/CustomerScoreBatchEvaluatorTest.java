@@ -0,0 +1,163 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.repository.CustomerScoreRepository;
+import cl.casero.migration.repository.TransactionRepository;
+import cl.casero.migration.util.CustomerScoreSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerScoreBatchEvaluatorTest {
+
+    // Well above the evaluator's sequential threshold, so the parallel run actually forks.
+    private static final int CUSTOMERS = 1500;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final List<CustomerScoreBatchEvaluator> evaluators = new ArrayList<>();
+
+    @AfterEach
+    void shutdownEvaluators() {
+        evaluators.forEach(CustomerScoreBatchEvaluator::shutdown);
+    }
+
+    @Test
+    void sequentialEvaluationMatchesScoreSummaries() {
+        assertMatchesScoreSummaries(false);
+    }
+
+    @Test
+    void parallelEvaluationMatchesScoreSummaries() {
+        assertMatchesScoreSummaries(true);
+    }
+
+    @Test
+    void skipsCustomersWithoutId() {
+        CustomerCycleStatsLoader loader = loaderReturning(Map.of());
+        Customer unsaved = customer(null, 1000);
+        Customer saved = customer(1L, 0);
+
+        CustomerScoreBatchEvaluator.BatchScores batch = evaluator(loader, true).evaluate(List.of(unsaved, saved));
+
+        assertThat(batch.customers()).containsExactly(saved);
+        assertThat(batch.scores()).hasSize(1);
+        assertThat(batch.cycleCounts()).containsExactly(0);
+    }
+
+    private void assertMatchesScoreSummaries(boolean parallel) {
+        List<Customer> customers = new ArrayList<>();
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats = new HashMap<>();
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            Customer customer = customer(id, debtFor(id));
+            customers.add(customer);
+            List<TransactionRepository.CustomerCycleProjection> cycles = cyclesFor(id);
+            if (!cycles.isEmpty()) {
+                stats.put(id, cycles);
+            }
+        }
+        CustomerCycleStatsLoader loader = loaderReturning(stats);
+        CustomerScoreBatchEvaluator evaluator = evaluator(loader, parallel);
+        CustomerScoreService service = new CustomerScoreService(
+                mock(CustomerRepository.class),
+                mock(CustomerScoreRepository.class),
+                loader,
+                evaluator,
+                mock(CustomerScoreCache.class),
+                mock(TransactionRepository.class));
+
+        CustomerScoreBatchEvaluator.BatchScores batch = evaluator.evaluate(customers);
+        Map<Long, CustomerScoreSummary> summaries = service.calculateScoreSummaries(customers);
+
+        assertThat(batch.customers()).containsExactlyElementsOf(customers);
+        for (int index = 0; index < customers.size(); index++) {
+            Long id = customers.get(index).getId();
+            CustomerScoreSummary expected = summaries.get(id);
+            assertThat(batch.scores()[index]).as("score of customer %d", id).isEqualTo(expected.score());
+            assertThat(batch.cycleCounts()[index]).as("cycles of customer %d", id).isEqualTo(expected.cycles().size());
+        }
+    }
+
+    /**
+     * Customers with id % 7 in 0..2 have no cycles, so they exercise the fallback score with
+     * debt, without debt and with an unknown debt; the rest mix cycles whose nullable columns
+     * are null (no payments, a single payment) with fully populated ones.
+     */
+    private static List<TransactionRepository.CustomerCycleProjection> cyclesFor(long id) {
+        int shape = (int) (id % 7);
+        int offset = (int) (id % 40);
+        List<TransactionRepository.CustomerCycleProjection> cycles = new ArrayList<>();
+
+        switch (shape) {
+            case 3 -> cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                    id, 0, TODAY.minusDays(20 + offset), TODAY.minusDays(20 + offset), null,
+                    0, null, null, null, null, null, 1, true));
+            case 4 -> cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                    id, 0, TODAY.minusDays(90), TODAY.minusDays(10 + offset), TODAY.minusDays(10 + offset),
+                    1, null, 0L, 0, 0, 1L, 3, offset % 2 == 0));
+            case 5 -> {
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        id, 0, TODAY.minusDays(400), TODAY.minusDays(300), TODAY.minusDays(300),
+                        4, 30 + offset, 90L, 3, offset > 15 ? 1 : 0, 4L, 4, false));
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        id, 1, TODAY.minusDays(200), TODAY.minusDays(5), TODAY.minusDays(5 + offset),
+                        6, 60, 150L + offset, 5, 2, 5L, 7, true));
+            }
+            case 6 -> {
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        id, 0, TODAY.minusDays(700), TODAY.minusDays(650), TODAY.minusDays(650),
+                        2, 20, 20L, 1, 0, 2L, 2, false));
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        id, 1, TODAY.minusDays(600), TODAY.minusDays(600), null,
+                        0, null, null, null, null, null, 1, false));
+                cycles.add(new CustomerCycleStatsEngine.CycleStats(
+                        id, 2, TODAY.minusDays(120), TODAY.minusDays(1), TODAY.minusDays(100),
+                        3, 95 + offset, 140L, 2, 2, 3L, 5, true));
+            }
+            default -> {
+            }
+        }
+
+        return cycles;
+    }
+
+    private static Integer debtFor(long id) {
+        return switch ((int) (id % 7)) {
+            case 1 -> 15000;
+            case 2 -> null;
+            default -> 0;
+        };
+    }
+
+    private CustomerScoreBatchEvaluator evaluator(CustomerCycleStatsLoader loader, boolean parallel) {
+        CustomerScoreBatchEvaluator evaluator = new CustomerScoreBatchEvaluator(loader, new SimpleMeterRegistry(), parallel, 4);
+        evaluators.add(evaluator);
+        return evaluator;
+    }
+
+    private static CustomerCycleStatsLoader loaderReturning(
+        Map<Long, List<TransactionRepository.CustomerCycleProjection>> stats
+    ) {
+        CustomerCycleStatsLoader loader = mock(CustomerCycleStatsLoader.class);
+        when(loader.load(any())).thenReturn(stats);
+        return loader;
+    }
+
+    private static Customer customer(Long id, Integer debt) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setDebt(debt);
+        return customer;
+    }
+}
@@ -0,0 +1,83 @@
+package cl.casero.migration.service;
+
+import cl.casero.migration.domain.Customer;
+import cl.casero.migration.repository.CustomerRepository;
+import cl.casero.migration.support.PostgresTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The in-memory index must return the same customers in the same order as the SQL search
+ * it replaces, and installs its version triggers only once it is started.
+ */
+@PostgresTest
+class CustomerSearchIndexTest {
+
+    // Distinct first letters keep the name tie-break independent of the database collation.
+    private static final List<String> NAMES = List.of(
+            "Alberto Rojas", "Beatriz Rojas Pino", "Carla Rojo", "Daniel Pino", "Elena Rojas Rojas",
+            "Fabian Soto", "Gloria Pinochet", "Hector Rosales", "Ines Rojas", "Jorge Sotomayor");
+    private static final List<String> ADDRESSES = List.of(
+            "Calle Los Aromos 12", "Pasaje Rojas 4", "Avenida Pino 880", "Calle Larga 3", "Camino Real 77",
+            "Los Pinos 19", "Calle Roja 5", "Pasaje Sur 1", "Calle Sotomayor 9", "Avenida Grecia 1010");
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private CustomerSearchIndex index;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < NAMES.size(); i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO customer (name, sector_id, address, debt, enabled)
+                    VALUES (?, (SELECT MIN(id) FROM sector), ?, 0, true)
+                    """, NAMES.get(i), ADDRESSES.get(i));
+        }
+        index = new CustomerSearchIndex(customerRepository, new SimpleMeterRegistry(), true);
+        index.start();
+    }
+
+    @Test
+    void ordersLikeTheDatabaseSearch() {
+        for (String query : List.of("rojas", "roj", "pino", "calle", "soto", "alberto", "pasaje rojas")) {
+            assertThat(ids(index.search(query, PageRequest.of(0, 20)).getContent()))
+                    .as("results for %s", query)
+                    .isNotEmpty()
+                    .containsExactlyElementsOf(ids(customerRepository.search(query, PageRequest.of(0, 20)).getContent()));
+        }
+    }
+
+    @Test
+    void fuzzyFallbackFindsNearMisses() {
+        assertThat(index.search("rojaz pino", PageRequest.of(0, 20)).getContent())
+                .extracting(Customer::getName)
+                .first()
+                .isEqualTo("Beatriz Rojas Pino");
+    }
+
+    @Test
+    void startingTheIndexInstallsTheVersionTriggers() {
+        Long before = customerRepository.findSearchVersion();
+
+        jdbcTemplate.update("UPDATE customer SET name = 'Alberto Rojas Vega' WHERE name = 'Alberto Rojas'");
+        jdbcTemplate.update("UPDATE customer SET debt = debt + 1000");
+
+        assertThat(customerRepository.findSearchVersion()).isEqualTo(before + 1);
+    }
+
+    private static List<Long> ids(List<Customer> customers) {
+        return customers.stream().map(Customer::getId).toList();
+    }
+}
@@ -0,0 +1,42 @@
+package cl.casero.migration.service.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorCodecTest {
+
+    @Test
+    void cursorsSurviveARoundTrip() {
+        TransactionCursor history = new TransactionCursor(OffsetDateTime.parse("2024-03-01T10:15:30.123456-03:00"), 42L);
+        TransactionFeedCursor feed = new TransactionFeedCursor(
+                LocalDate.parse("2024-03-01"), OffsetDateTime.parse("2024-03-01T10:15:30-03:00"), 7L);
+        AuditEventCursor audit = new AuditEventCursor(Instant.parse("2024-03-01T13:15:30.5Z"), 99L);
+
+        assertThat(TransactionCursor.decode(history.encode())).isEqualTo(history);
+        assertThat(TransactionFeedCursor.decode(feed.encode())).isEqualTo(feed);
+        assertThat(AuditEventCursor.decode(audit.encode())).isEqualTo(audit);
+    }
+
+    @Test
+    void malformedCursorsDecodeToNull() {
+        assertThat(TransactionCursor.decode(null)).isNull();
+        assertThat(TransactionCursor.decode(" ")).isNull();
+        assertThat(TransactionCursor.decode("not base64!")).isNull();
+        assertThat(TransactionCursor.decode(encodeRaw("2024-03-01T10:15:30-03:00"))).isNull();
+        assertThat(TransactionCursor.decode(encodeRaw("|42"))).isNull();
+        assertThat(TransactionCursor.decode(encodeRaw("2024-03-01T10:15:30-03:00|x"))).isNull();
+        assertThat(TransactionFeedCursor.decode(encodeRaw("2024-03-01|2024-03-01T10:15:30-03:00"))).isNull();
+        assertThat(AuditEventCursor.decode(encodeRaw("yesterday|1"))).isNull();
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package cl.casero.migration.support;
+
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Repository slice against a real PostgreSQL database, migrated by Flyway. The tests only
+ * run when {@code CASERO_TEST_DATABASE_URL} points at a disposable database (credentials in
+ * {@code CASERO_TEST_DATABASE_USERNAME} / {@code CASERO_TEST_DATABASE_PASSWORD}, default
+ * {@code casero}); each test runs in a transaction that is rolled back afterwards.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@ActiveProfiles("test")
+@EnabledIfEnvironmentVariable(named = "CASERO_TEST_DATABASE_URL", matches = ".+")
+public @interface PostgresTest {
+}
@@ -0,0 +1,133 @@
+package cl.casero.migration.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the application {@link DataSource} and, while {@link #record} runs, keeps every
+ * prepared statement the repositories execute together with its bound parameters, so a
+ * test can replay the exact SQL Hibernate generated under {@code EXPLAIN}.
+ */
+public final class StatementCapture implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private final List<CapturedStatement> statements = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    public List<CapturedStatement> record(Runnable action) {
+        statements.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        return proxy(dataSource, new Class<?>[]{DataSource.class, AutoCloseable.class}, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(connection, new Class<?>[]{Connection.class}, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(statement, (String) args[0]);
+            }
+            return result;
+        });
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement, String sql) {
+        List<ParameterCall> parameters = new ArrayList<>();
+        return proxy(statement, new Class<?>[]{PreparedStatement.class}, (target, method, args) -> {
+            // Parameter setters take the parameter index first and a value after it.
+            if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.add(new ParameterCall(method, args.clone()));
+            } else if (method.getName().equals("clearParameters")) {
+                parameters.clear();
+            } else if (recording && EXECUTE_METHODS.contains(method.getName()) && (args == null || args.length == 0)) {
+                statements.add(new CapturedStatement(sql, List.copyOf(parameters)));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(T target, Class<?>[] interfaces, Interceptor<T> interceptor) {
+        InvocationHandler handler = (proxy, method, args) -> interceptor.intercept(target, method, args);
+        return (T) Proxy.newProxyInstance(StatementCapture.class.getClassLoader(), interfaces, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Interceptor<T> {
+        Object intercept(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    record ParameterCall(Method method, Object[] args) {
+    }
+
+    public record CapturedStatement(String sql, List<ParameterCall> parameters) {
+
+        /**
+         * Runs {@code EXPLAIN (FORMAT JSON)} for this statement with the parameters it was
+         * executed with and returns the plan document.
+         */
+        public String explain(Connection connection) throws SQLException {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + sql)) {
+                for (ParameterCall parameter : parameters) {
+                    try {
+                        parameter.method().invoke(explain, parameter.args());
+                    } catch (ReflectiveOperationException ex) {
+                        throw new SQLException("Could not rebind " + parameter.method().getName(), ex);
+                    }
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            }
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+}